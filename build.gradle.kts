@@ -27,6 +27,17 @@ application {
     mainClass.set("com.example.Main")
 }
 
+// JMH benchmarks live in their own source set so they stay off the application classpath
+sourceSets {
+    create("jmh") {
+        compileClasspath += sourceSets["main"].output
+        runtimeClasspath += sourceSets["main"].output
+    }
+}
+
+configurations["jmhImplementation"].extendsFrom(configurations["implementation"])
+configurations["jmhRuntimeOnly"].extendsFrom(configurations["runtimeOnly"])
+
 dependencies {
     implementation("ch.qos.logback:logback-classic:1.4.14")
 
@@ -65,8 +76,13 @@ dependencies {
     compileOnly("org.projectlombok:lombok:1.18.38")
     annotationProcessor("org.projectlombok:lombok:1.18.38")
 
+    // In-process test runs for hot-swapped mutants
+    implementation("org.junit.platform:junit-platform-launcher:1.10.0")
+
     //Benchmark
     implementation("com.google.guava:guava:32.1.2-jre")
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
 
     // Testing
     testImplementation(platform("org.junit:junit-bom:5.10.0"))
@@ -88,6 +104,16 @@ tasks.test {
     useJUnitPlatform()
 }
 
+// ./gradlew jmh -Pbenchmark=SpoonParseBenchmark --args="file.java"
+tasks.register<JavaExec>("jmh") {
+    group = "verification"
+    description = "Runs one JMH benchmark class from the jmh source set"
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set(providers.gradleProperty("benchmark")
+        .orElse("SpoonParseBenchmark")
+        .map { "com.example.benchmark.$it" })
+}
+
 // Увеличиваем память JVM для задачи run
 tasks.withType<JavaExec> {
     jvmArgs = listOf(
@@ -0,0 +1,113 @@
+package com.example.benchmark;
+
+import com.example.util.NodeText;
+import com.example.util.SourceText;
+import com.example.util.SpoonSourceParser;
+import gumtree.spoon.AstComparator;
+import gumtree.spoon.diff.operations.Operation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtType;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Node text normalization over the nodes of real edit operations, obtained by diffing two
+ * versions of a file: the old replaceAll-based code against {@link NodeText}, both with the
+ * rendered text shared between callers and with every call rendering the node again.
+ *
+ * <pre>
+ * ./gradlew jmh -Pbenchmark=NodeTextBenchmark [--args="old.java new.java"]
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+public class NodeTextBenchmark {
+
+    @Param("src/main/java/com/example/test/file1.java")
+    public String oldFile;
+
+    @Param("src/main/java/com/example/test/file2.java")
+    public String newFile;
+
+    private final List<CtElement> nodes = new ArrayList<>();
+
+    @Setup
+    public void diff() throws IOException {
+        CtType<?> oldType = firstType(SourceText.read(new File(oldFile)));
+        CtType<?> newType = firstType(SourceText.read(new File(newFile)));
+        for (Operation<?> op : new AstComparator().compare(oldType, newType).getAllOperations()) {
+            if (op.getSrcNode() != null) nodes.add(op.getSrcNode());
+            if (op.getDstNode() != null) nodes.add(op.getDstNode());
+        }
+        if (nodes.isEmpty()) {
+            throw new IllegalStateException("No edit operations between " + oldFile + " and " + newFile);
+        }
+        for (CtElement node : nodes) {
+            if (!NodeText.collapsedUnqualified(node).equals(regexUnqualified(node))
+                    || !NodeText.collapsed(node).equals(regexCollapsed(node))) {
+                throw new IllegalStateException("NodeText differs from the regex output for " + node);
+            }
+        }
+    }
+
+    private static CtType<?> firstType(SourceText source) {
+        return SpoonSourceParser.forCurrentThread().parse(source).getAllTypes().iterator().next();
+    }
+
+    private static String regexUnqualified(CtElement node) {
+        String raw = node.toString().replaceAll("\\s+", " ").trim();
+        return raw.replaceAll("\\b([a-zA-Z_][\\w$]*\\.)+([A-Z][\\w$]*)", "$2");
+    }
+
+    private static String regexCollapsed(CtElement node) {
+        return node.toString().trim().replaceAll("\\s+", " ");
+    }
+
+    /** What EditOperation and ResultMapper did before: each renders and regex-normalizes on its own. */
+    @Benchmark
+    public void regex(Blackhole bh) {
+        for (CtElement node : nodes) {
+            bh.consume(regexUnqualified(node));
+            bh.consume(regexCollapsed(node));
+        }
+    }
+
+    @Benchmark
+    public void nodeTextSharedRender(Blackhole bh) {
+        for (CtElement node : nodes) {
+            bh.consume(NodeText.collapsedUnqualified(node));
+            bh.consume(NodeText.collapsed(node));
+        }
+    }
+
+    @Benchmark
+    public void nodeTextFreshRender(Blackhole bh) {
+        for (CtElement node : nodes) {
+            bh.consume(NodeText.normalize(node.toString(), true));
+            bh.consume(NodeText.normalize(node.toString(), false));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        OptionsBuilder options = new OptionsBuilder();
+        options.include(NodeTextBenchmark.class.getSimpleName());
+        if (args.length == 2) {
+            options.param("oldFile", args[0]);
+            options.param("newFile", args[1]);
+        }
+        new Runner(options.build()).run();
+    }
+}
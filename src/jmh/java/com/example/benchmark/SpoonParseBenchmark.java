@@ -0,0 +1,68 @@
+package com.example.benchmark;
+
+import com.example.util.SourceText;
+import com.example.util.SpoonSourceParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import spoon.Launcher;
+import spoon.reflect.CtModel;
+import spoon.reflect.code.CtComment;
+import spoon.reflect.visitor.filter.TypeFilter;
+import spoon.support.compiler.VirtualFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-file Spoon parse latency: a fresh Launcher with comments stripped afterwards (the old
+ * TreeComparator path) against the per-thread {@link SpoonSourceParser}.
+ *
+ * <pre>
+ * ./gradlew jmh -Pbenchmark=SpoonParseBenchmark [--args="file.java"]
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+public class SpoonParseBenchmark {
+
+    @Param("src/main/java/com/example/TreeComparator.java")
+    public String sourceFile;
+
+    private SourceText source;
+
+    @Setup
+    public void load() throws IOException {
+        source = SourceText.read(new File(sourceFile));
+    }
+
+    @Benchmark
+    public CtModel launcherPerFile() {
+        Launcher launcher = new Launcher();
+        launcher.addInputResource(new VirtualFile(source.getContent(), source.getName()));
+        launcher.buildModel();
+        CtModel model = launcher.getModel();
+        model.getElements(new TypeFilter<>(CtComment.class)).forEach(CtComment::delete);
+        return model;
+    }
+
+    @Benchmark
+    public CtModel reusedEnvironment() {
+        return SpoonSourceParser.forCurrentThread().parse(source);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        OptionsBuilder options = new OptionsBuilder();
+        options.include(SpoonParseBenchmark.class.getSimpleName());
+        if (args.length > 0) {
+            options.param("sourceFile", args[0]);
+        }
+        new Runner(options.build()).run();
+    }
+}
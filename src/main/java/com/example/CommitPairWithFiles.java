@@ -2,7 +2,18 @@ package com.example;
 
 import org.eclipse.jgit.revwalk.RevCommit;
 import java.util.List;
+import java.util.Map;
 
-public record CommitPairWithFiles(RevCommit oldCommit, RevCommit newCommit, List<String> changedFiles) {
+/**
+ * @param hunks changed line ranges per entry of {@code changedFiles}; files without an entry
+ *              are diffed in full
+ */
+public record CommitPairWithFiles(RevCommit oldCommit,
+                                  RevCommit newCommit,
+                                  List<String> changedFiles,
+                                  Map<String, FileHunks> hunks) {
 
+    public CommitPairWithFiles(RevCommit oldCommit, RevCommit newCommit, List<String> changedFiles) {
+        this(oldCommit, newCommit, changedFiles, Map.of());
+    }
 }
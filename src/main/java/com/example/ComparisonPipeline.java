@@ -0,0 +1,205 @@
+package com.example;
+
+import com.example.classifier.MutationKind;
+import com.example.dto.FileResultDto;
+import com.example.mapper.ResultMapper;
+import com.example.pojo.FileResult;
+import com.example.service.WorkerCountController;
+import com.example.util.ComparisonResultWriter;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * File-comparison pipeline for one repository run. A single long-lived worker pool serves every
+ * batch, so workers move straight on to the next batch's files instead of idling while the
+ * slowest diff of the previous batch finishes. The pool is sized by a {@link WorkerCountController},
+ * submission blocks once {@code inFlightPerThread} files per worker are queued or running, and finished results are handed to a dedicated writer thread so workers
+ * never wait on JSON output.
+ *
+ * <p>Files that run out of their {@link DiffBudget} are given up on at the deadline and retried one
+ * at a time on a slow lane with a larger budget, so a pathological diff delays only itself. The
+ * retry resumes the file's partial diff rather than diffing it again. Files that time out there too are
+ * written as results whose skip reason is {@link TreeComparator#SKIPPED_TIMEOUT}, carrying the
+ * commit SHAs needed to retry them later; their pending method diffs are cancelled.
+ */
+public class ComparisonPipeline implements AutoCloseable {
+    private static final long SINK_POLL_MS = 200;
+
+    private final String repoDir;
+    private final ThreadPoolExecutor workers;
+    private final WorkerCountController workerCountController;
+    private final DiffBudget budget;
+    private final DiffBudget slowLaneBudget;
+    private final ExecutorService slowLane = Executors.newSingleThreadExecutor();
+    private final Semaphore inFlight;
+    private final ThreadLocal<TreeComparator> localComparator;
+    private final ConcurrentMap<MutationKind, Integer> patternCounts;
+
+    private final ComparisonResultWriter resultWriter;
+    private final BlockingQueue<FileResultDto> results = new LinkedBlockingQueue<>();
+    private final ExecutorService sink = Executors.newSingleThreadExecutor();
+    private final Future<?> sinkTask;
+    private volatile boolean submissionDone;
+
+    private final AtomicInteger submitted = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger slowLaneRetries = new AtomicInteger();
+    private final AtomicInteger timedOut = new AtomicInteger();
+
+    public ComparisonPipeline(WorkerCountController workerCountController,
+                              int inFlightPerThread,
+                              DiffBudget budget,
+                              DiffBudget slowLaneBudget,
+                              String repoDir,
+                              ObjectProvider<TreeComparator> treeComparatorProvider,
+                              ComparisonResultWriter resultWriter,
+                              ConcurrentMap<MutationKind, Integer> patternCounts) {
+        this.repoDir = repoDir;
+        this.budget = budget;
+        this.slowLaneBudget = slowLaneBudget;
+        int threadCount = workerCountController.maxWorkers();
+        this.workers = new ThreadPoolExecutor(threadCount, threadCount,
+                30, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        this.workerCountController = workerCountController;
+        workerCountController.attach(workers);
+        this.inFlight = new Semaphore(threadCount * inFlightPerThread);
+        this.localComparator = ThreadLocal.withInitial(treeComparatorProvider::getObject);
+        this.resultWriter = resultWriter;
+        this.patternCounts = patternCounts;
+        this.sinkTask = sink.submit(this::drainResults);
+    }
+
+    /** Queues every changed file of {@code pair}, blocking while the pipeline is full. */
+    public void submit(CommitPairWithFiles pair) throws InterruptedException {
+        for (String file : pair.changedFiles()) {
+            inFlight.acquire();
+            submitted.incrementAndGet();
+            try {
+                workers.execute(() -> {
+                    try {
+                        compare(pair, file, budget, null);
+                    } finally {
+                        completed.incrementAndGet();
+                        inFlight.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                inFlight.release();
+                throw e;
+            }
+        }
+    }
+
+    private void compare(CommitPairWithFiles pair, String file, DiffBudget fileBudget,
+                         TreeComparator.PartialDiff resume) {
+        try {
+            FileResult result = localComparator.get().compareFileInTwoCommits(
+                    repoDir, pair.oldCommit(), pair.newCommit(), file, pair.hunks().get(file), fileBudget, resume, false
+            );
+            if (result == null) {
+                return;
+            }
+
+            if (result.getSkipReason() != null) {
+                if (fileBudget == budget && slowLaneBudget != null) {
+                    slowLaneRetries.incrementAndGet();
+                    slowLane.execute(() -> compare(pair, file, slowLaneBudget, result.getPartialDiff()));
+                } else {
+                    if (result.getPartialDiff() != null) {
+                        result.getPartialDiff().cancel();
+                    }
+                    timedOut.incrementAndGet();
+                    results.add(ResultMapper.toDto(result));
+                }
+                return;
+            }
+
+            Map<String, Integer> fileMetrics = result.getMetrics();
+            if (fileMetrics != null) {
+                fileMetrics.forEach((key, count) -> {
+                    try {
+                        patternCounts.merge(MutationKind.valueOf(key), count, Integer::sum);
+                    } catch (IllegalArgumentException ignored) {
+                        // Ignore non-pattern metrics
+                    }
+                });
+            }
+
+            if (!result.getEditOperations().isEmpty()) {
+                results.add(ResultMapper.toDto(result));
+            }
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            System.err.println("Task failed: " + e);
+        }
+    }
+
+    private void drainResults() {
+        List<FileResultDto> chunk = new ArrayList<>();
+        try {
+            while (!submissionDone || !results.isEmpty()) {
+                FileResultDto first = results.poll(SINK_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                chunk.add(first);
+                results.drainTo(chunk);
+                try {
+                    resultWriter.append(chunk);
+                } catch (IOException e) {
+                    System.err.println("Failed to append results to JSON: " + e.getMessage());
+                }
+                chunk.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int submittedCount() {
+        return submitted.get();
+    }
+
+    public int completedCount() {
+        return completed.get();
+    }
+
+    public int failedCount() {
+        return failed.get();
+    }
+
+    public int slowLaneRetryCount() {
+        return slowLaneRetries.get();
+    }
+
+    /** Files skipped for good after running out of every budget. */
+    public int timedOutCount() {
+        return timedOut.get();
+    }
+
+    /** Waits for every submitted file to be compared and every result to be written. */
+    @Override
+    public void close() throws InterruptedException {
+        workerCountController.detach();
+        workers.shutdown();
+        workers.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        // workers are done, so nothing can be added to the slow lane any more
+        slowLane.shutdown();
+        slowLane.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        submissionDone = true;
+        try {
+            sinkTask.get();
+        } catch (ExecutionException e) {
+            System.err.println("Result writer failed: " + e.getCause());
+        } finally {
+            sink.shutdown();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example;
+
+/**
+ * Time allowed for diffing one file and each of its methods, in milliseconds (0 = unlimited).
+ * A method's diff runs under a deadline of whatever is left of both, so a file is abandoned as
+ * soon as either runs out, even in the middle of a GumTree match.
+ */
+public record DiffBudget(long fileBudgetMs, long methodBudgetMs) {
+
+    public static final DiffBudget UNLIMITED = new DiffBudget(0, 0);
+
+    public boolean fileExceeded(long elapsedMs) {
+        return fileBudgetMs > 0 && elapsedMs > fileBudgetMs;
+    }
+
+    public boolean isUnlimited() {
+        return fileBudgetMs <= 0 && methodBudgetMs <= 0;
+    }
+
+    /**
+     * Time the next method may take once the file has run for {@code fileElapsedMs}: the method
+     * budget, capped by what is left of the file budget. 0 = unlimited.
+     */
+    public long methodDeadlineMs(long fileElapsedMs) {
+        long fileLeft = fileBudgetMs > 0 ? Math.max(1, fileBudgetMs - fileElapsedMs) : 0;
+        if (methodBudgetMs <= 0) {
+            return fileLeft;
+        }
+        return fileLeft > 0 ? Math.min(methodBudgetMs, fileLeft) : methodBudgetMs;
+    }
+}
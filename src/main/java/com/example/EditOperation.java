@@ -1,5 +1,6 @@
 package com.example;
 
+import com.example.util.NodeText;
 import com.github.javaparser.Range;
 import com.github.javaparser.ast.Node;
 import spoon.reflect.declaration.CtElement;
@@ -57,11 +58,8 @@ public record EditOperation(
     private static String safeNodeText(CtElement element) {
         if (element == null) return "<null>";
         try {
-            // Trim whitespace/newlines
-            String raw = element.toString().replaceAll("\\s+", " ").trim();
-
-            // Remove fully qualified class names (keep only the class name)
-            return raw.replaceAll("\\b([a-zA-Z_][\\w$]*\\.)+([A-Z][\\w$]*)", "$2");
+            // Collapse whitespace and keep only the simple name of qualified class names
+            return NodeText.collapsedUnqualified(element);
         } catch (Exception e) {
             return "<error rendering node>";
         }
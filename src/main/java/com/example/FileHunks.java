@@ -0,0 +1,54 @@
+package com.example;
+
+import org.eclipse.jgit.diff.Edit;
+import org.eclipse.jgit.diff.EditList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Changed line ranges of one file in a commit pair, taken from the JGit {@link EditList}.
+ * Ranges use JGit's convention: 0-based, end-exclusive, and empty for a pure insertion point.
+ */
+public record FileHunks(List<LineRange> oldLines, List<LineRange> newLines) {
+
+    public record LineRange(int begin, int end) {
+
+        /** Whether this range touches the 1-based, inclusive line span {@code [firstLine, lastLine]}. */
+        boolean touches(int firstLine, int lastLine) {
+            int spanBegin = firstLine - 1;
+            if (begin == end) {
+                // lines were inserted or removed between begin - 1 and begin
+                return spanBegin < begin && begin < lastLine;
+            }
+            return begin < lastLine && spanBegin < end;
+        }
+    }
+
+    public static FileHunks of(EditList edits) {
+        List<LineRange> oldLines = new ArrayList<>();
+        List<LineRange> newLines = new ArrayList<>();
+        for (Edit edit : edits) {
+            oldLines.add(new LineRange(edit.getBeginA(), edit.getEndA()));
+            newLines.add(new LineRange(edit.getBeginB(), edit.getEndB()));
+        }
+        return new FileHunks(oldLines, newLines);
+    }
+
+    public boolean touchesOld(int firstLine, int lastLine) {
+        return touches(oldLines, firstLine, lastLine);
+    }
+
+    public boolean touchesNew(int firstLine, int lastLine) {
+        return touches(newLines, firstLine, lastLine);
+    }
+
+    private static boolean touches(List<LineRange> ranges, int firstLine, int lastLine) {
+        for (LineRange range : ranges) {
+            if (range.touches(firstLine, lastLine)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -7,15 +7,23 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
 
+import com.example.classifier.ChangeClassifier;
 import com.example.classifier.MutationKind;
+import com.example.config.MutationAnalysisConfig;
 import com.example.dto.CommitPairDTO;
 import com.example.dto.FileResultDto;
 import com.example.mapper.CommitPairMapper;
 import com.example.mapper.ResultMapper;
 import com.example.mutation_tester.mutation_metadata_processing.MethodCallMapper;
+import com.example.mutation_tester.mutants_runner.MutantScheduler;
+import com.example.mutation_tester.mutants_runner.TestHistory;
 import com.example.mutation_tester.mutations_applier.MutationApplier;
 import com.example.pojo.FileResult;
 import com.example.service.GitRepositoryManager;
+import com.example.service.ParsedSourceCache;
+import com.example.service.WorkerCountController;
+import com.example.util.BinaryCommitPairCache;
+import com.example.util.ComparisonResultWriter;
 import com.example.util.GitUtils;
 import com.example.util.JsonUtils;
 import com.example.mutation_tester.mutations_applier.custom_patterns.LoopBreakReplacement;
@@ -43,15 +51,19 @@ public class Main implements CommandLineRunner {
     private final GitRepositoryManager repoManager;
     private final GitUtils gitUtils;
     private final MutationApplier mutationApplier;
+    private final ParsedSourceCache parsedSourceCache;
 
     ConcurrentMap<MutationKind, Integer> repoPatternCounts =
             new ConcurrentHashMap<>();
 
     private final ObjectProvider<TreeComparator> treeComparatorProvider;
-    private final int THREAD_COUNT = Runtime.getRuntime().availableProcessors()/2;
+    private final WorkerCountController workerCountController;
+    private final MutationAnalysisConfig config;
+    private final MutantScheduler mutantScheduler;
 
     String localPath = "repositories";
     final int BATCH_SIZE = 500;
+    final int IN_FLIGHT_PER_THREAD = 8;
     final String filteredDir = "src/main/resources/programOutputFiltered";
 
     List<String> repoUrls = List.of(
@@ -75,11 +87,19 @@ public class Main implements CommandLineRunner {
                 TreeComparator treeComparator,
                 GitUtils gitUtils,
                 MutationApplier mutationApplier,
-                ObjectProvider<TreeComparator> treeComparatorProvider) {
+                ParsedSourceCache parsedSourceCache,
+                ObjectProvider<TreeComparator> treeComparatorProvider,
+                WorkerCountController workerCountController,
+                MutationAnalysisConfig config,
+                MutantScheduler mutantScheduler) {
         this.repoManager = repoManager;
         this.gitUtils = gitUtils;
         this.mutationApplier = mutationApplier;
+        this.parsedSourceCache = parsedSourceCache;
         this.treeComparatorProvider = treeComparatorProvider;
+        this.workerCountController = workerCountController;
+        this.config = config;
+        this.mutantScheduler = mutantScheduler;
     }
 
     public static void main(String[] args) {
@@ -170,63 +190,18 @@ public class Main implements CommandLineRunner {
         System.out.println("✅ Found " + uniqueCount + " unique relevant tests to run.");
 
         // =========================================================================
-        // STEP 4: Mutate and Test Each Method Individually
+        // STEP 4: Mutate and Test Each Method in Its Own Worktree
         // =========================================================================
-        System.out.println("\nSTEP 4: Testing mutations one method at a time...");
+        System.out.println("\nSTEP 4: Testing mutations in parallel, one method per mutant lane...");
 
-        Map<String, Set<String>> globalFailedTestsReport = new HashMap<>();
-        int methodCount = 0;
-        int totalMethods = testsToRunMap.size();
-
-        for (Map.Entry<String, Set<String>> entry : testsToRunMap.entrySet()) {
-            String methodSignature = entry.getKey();
-            Set<String> relevantTests = entry.getValue();
-            methodCount++;
-
-            System.out.printf("\n[%d/%d] Processing method: %s%n", methodCount, totalMethods, methodSignature);
-            System.out.println("  Relevant tests: " + relevantTests.size());
-
-            try {
-                // Reset project to clean state
-                System.out.println("  🔄 Resetting project to clean state...");
-                resetProjectToCleanState(projectPath);
-
-                // Apply mutation to this specific method only
-                System.out.println("  🧬 Applying mutation to method...");
-                boolean mutationApplied = mutationApplier.applyMutationToSpecificMethod(
-                        MutationApplier.CustomMutations.SAFE_STREAM_METHOD_REPLACEMENT,
-                        projectPath,
-                        methodSignature);
-
-                if (!mutationApplied) {
-                    System.out.println("  ⚠️ No mutation could be applied to this method, skipping...");
-                    continue;
-                }
-
-                // Run tests for this method
-                System.out.println("  🧪 Running tests for mutated method...");
-                Map<String, Set<String>> methodTestsMap = new HashMap<>();
-                methodTestsMap.put(methodSignature, relevantTests);
-
-                Map<String, Set<String>> failedTestsForMethod = runBatchedMavenTests(methodTestsMap, projectPath);
-
-                // Collect results
-                if (!failedTestsForMethod.isEmpty()) {
-                    globalFailedTestsReport.putAll(failedTestsForMethod);
-                    System.out.println("  ✅ Mutation detected! " + failedTestsForMethod.get(methodSignature).size() + " tests failed.");
-                } else {
-                    System.out.println("  ❌ Mutation not detected - all tests passed.");
-                }
-
-            } catch (Exception e) {
-                System.err.println("  ❌ Error processing method " + methodSignature + ": " + e.getMessage());
-                e.printStackTrace();
-            }
-        }
-
-        // Final reset to clean state
-        System.out.println("\n🔄 Final reset to clean state...");
-        resetProjectToCleanState(projectPath);
+        TestHistory testHistory = TestHistory.load(Paths.get(projectName + "-test-history.json"), allTestsMap);
+        Map<String, Set<String>> globalFailedTestsReport = mutantScheduler.run(
+                projectPath,
+                MutationApplier.CustomMutations.SAFE_STREAM_METHOD_REPLACEMENT,
+                testsToRunMap,
+                testHistory,
+                this::runBatchedMavenTests);
+        testHistory.save();
 
         // =========================================================================
         // STEP 5: Print Final Report
@@ -242,6 +217,10 @@ public class Main implements CommandLineRunner {
         // STATISTICS PER METHOD
         // =====================
         System.out.println("\n--- STATISTICS PER MUTATED METHOD ---");
+        if (!config.isFullFailureSets()) {
+            System.out.println("Note: mutants stopped at their first failing test; set "
+                    + "mutation-analysis.full-failure-sets=true for complete failure counts.");
+        }
         testsToRunMap.forEach((method, relevantTests) -> {
             int totalRelevant = relevantTests.size();
             Set<String> failedTests = globalFailedTestsReport.getOrDefault(method, Collections.emptySet());
@@ -271,7 +250,7 @@ public class Main implements CommandLineRunner {
         // SUMMARY STATISTICS
         // =====================
         System.out.println("--- MUTATION ANALYSIS SUMMARY ---");
-        totalMethods = testsToRunMap.size();
+        int totalMethods = testsToRunMap.size();
         int detectedMutants = globalFailedTestsReport.size();
         int survivedMutants = totalMethods - detectedMutants;
         double overallDetectionRate = totalMethods > 0 ? (double) detectedMutants / totalMethods * 100.0 : 0.0;
@@ -321,7 +300,8 @@ public class Main implements CommandLineRunner {
 
     public Map<String, Set<String>> runBatchedMavenTests(
             Map<String, Set<String>> testsToRunMap,
-            String projectPath
+            String projectPath,
+            Map<String, String> mavenProperties
     ) throws IOException, MavenInvocationException {
         Map<String, Set<String>> failedTestsReport = new HashMap<>();
         int totalRun = 0, totalFailures = 0, totalErrors = 0, totalSkipped = 0;
@@ -341,7 +321,8 @@ public class Main implements CommandLineRunner {
 
             try {
                 // Convert test format for Maven Surefire
-                Set<String> testClasses = new HashSet<>();
+                // keeps the order the tests were given in
+                Set<String> testClasses = new LinkedHashSet<>();
                 for (String test : tests) {
                     if (test.contains("#")) {
                         // Extract class name from "package.Class#method"
@@ -372,6 +353,8 @@ public class Main implements CommandLineRunner {
                 props.setProperty("test", testParameter);
                 props.setProperty("maven.test.failure.ignore", "true");
                 props.setProperty("failIfNoTests", "false");
+                // e.g. the mutant of the schemata to switch on, which surefire passes to the test JVM
+                mavenProperties.forEach(props::setProperty);
                 req.setProperties(props);
 
                 ByteArrayOutputStream baos = new ByteArrayOutputStream();
@@ -536,6 +519,9 @@ public class Main implements CommandLineRunner {
     }
 
     public void presentation(List<String> repoUrls) throws InterruptedException {
+        // Silence Spoon JDT errors
+        System.setErr(new ErrorFilterPrintStream(System.err));
+
         for (String repoUrl : repoUrls) {
 
             for (MutationKind k : MutationKind.values()) {
@@ -547,170 +533,118 @@ public class Main implements CommandLineRunner {
 
             System.out.println("Processing repo: " + repoName);
 
-            List<CommitPairWithFiles> commitPairs;
+            BinaryCommitPairCache commitPairs;
 
             try {
                 var repository = GitUtils.ensureClonedAndLoaded(repoUrl, repoDir);
+                GitUtils.fetch(repository);
+
+                Path cachePath = Path.of("src/main/resources/cache/" + repoName + "-commitPairs.bin");
+                File legacyCacheFile = new File("src/main/resources/cache/" + repoName + "-commitPairs.json");
+                String tipsFilePath = "src/main/resources/cache/" + repoName + "-refTips.json";
+                Set<String> currentTips = GitUtils.getRefTips(repository);
 
-                String cacheFilePath = "src/main/resources/cache/" + repoName + "-commitPairs.json";
-                File cacheFile = new File(cacheFilePath);
+                if (Files.exists(cachePath) || legacyCacheFile.exists()) {
+                    // Caches written before ref tips were recorded can't be refreshed incrementally
+                    Set<String> knownTips = JsonUtils.readRefTips(tipsFilePath);
+                    boolean stale = !knownTips.isEmpty() && !knownTips.equals(currentTips);
 
-                if (cacheFile.exists()) {
+                    if (!Files.exists(cachePath)) {
+                        System.out.println("Migrating JSON commit-pair cache to binary format...");
+                        BinaryCommitPairCache.write(JsonUtils.readCommitPairDTOsFromFile(legacyCacheFile.getPath()), cachePath);
+                    }
+                    if (stale) {
+                        System.out.println("Scanning history added since the cache was written...");
+                        List<CommitPairWithFiles> added = GitUtils.processNewHistory(
+                                repoUrl, repoDir, extensions, knownTips, currentTips, false);
+                        // read onto the heap, the file is rewritten right after
+                        List<CommitPairDTO> dtos = CommitPairMapper.merge(
+                                BinaryCommitPairCache.load(cachePath).toDTOs(), CommitPairMapper.toDTOs(added));
+                        BinaryCommitPairCache.write(dtos, cachePath);
+                        JsonUtils.writeRefTips(currentTips, tipsFilePath);
+                        System.out.println("Added " + added.size() + " new commit pairs to the cache.");
+                    }
                     System.out.println("Loading cached commit pairs...");
-                    List<CommitPairDTO> dtos = JsonUtils.readCommitPairDTOsFromFile(cacheFilePath);
-                    commitPairs = CommitPairMapper.fromDTOs(repository, dtos);
                 } else {
                     System.out.println("Generating commit pairs...");
-                    commitPairs = GitUtils.processRepo(repoUrl, repoDir, extensions, false);
-                    List<CommitPairDTO> dtos = CommitPairMapper.toDTOs(commitPairs);
-                    JsonUtils.writeCommitPairDTOsToFile(dtos, cacheFilePath);
+                    List<CommitPairWithFiles> generated = GitUtils.processNewHistory(
+                            repoUrl, repoDir, extensions, Set.of(), currentTips, false);
+                    BinaryCommitPairCache.write(CommitPairMapper.toDTOs(generated), cachePath);
+                    JsonUtils.writeRefTips(currentTips, tipsFilePath);
                 }
+                commitPairs = BinaryCommitPairCache.open(cachePath);
 
             } catch (Exception e) {
                 System.err.println("Error processing " + repoUrl + ": " + e.getMessage());
                 continue;
             }
 
-            if (commitPairs == null || commitPairs.isEmpty()) {
+            if (commitPairs.size() == 0) {
                 System.out.println("No commits for " + repoUrl);
                 continue;
             }
 
-            JsonUtils.initializeJsonOutput(repoUrl);
-
             int totalPairs = commitPairs.size();
             System.out.println("Total commit pairs to process: " + totalPairs);
 
-            for (int batchStart = 0; batchStart < totalPairs; batchStart += BATCH_SIZE) {
-                int batchEnd = Math.min(batchStart + BATCH_SIZE, totalPairs);
-                List<CommitPairWithFiles> batch = commitPairs.subList(batchStart, batchEnd);
-
-                System.out.printf("Processing batch %d - %d / %d%n", batchStart + 1, batchEnd, totalPairs);
-                processBatch(batch, repoDir, repoUrl);
-
-                long used = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-                System.out.println("Memory used (MB): " + used / (1024 * 1024));
-            }
-
-            JsonUtils.appendPatternCounts(repoUrl, repoPatternCounts);
-            System.out.println("Wrote patternCounts for " + repoName);
-
-            JsonUtils.filterUniqueOperations(repoUrl);
-
-            repoManager.closeRepository();
-
-            System.out.println();
-        }
-    }
-
-    private void processBatch(List<CommitPairWithFiles> batch, String repoDir, String repoUrl)
-    {
-        long totalStart = System.currentTimeMillis();
-
-        int totalFiles = batch.stream()
-                .mapToInt(pair -> pair.changedFiles().size())
-                .sum();
-        System.out.printf("Processing %d commit pairs with a total of %d changed files%n", batch.size(), totalFiles);
-
-        ExecutorService exec = Executors.newFixedThreadPool(THREAD_COUNT);
-        CompletionService<Void> cs = new ExecutorCompletionService<>(exec);
-
-        Queue<FileResultDto> batchResults = new ConcurrentLinkedQueue<>();
-        ConcurrentMap<MutationKind, Integer> safePatternCounts = new ConcurrentHashMap<>();
-
-        // Silence Spoon JDT errors
-        System.setErr(new ErrorFilterPrintStream(System.err));
-
-        ThreadLocal<TreeComparator> localComparator = ThreadLocal.withInitial(() -> treeComparatorProvider.getObject());
-
-        long submissionStart = System.currentTimeMillis();
-        int taskCount = 0;
-
-        for (CommitPairWithFiles pair : batch) {
-            for (String file : pair.changedFiles()) {
-                cs.submit(() -> {
-                    if (Thread.currentThread().isInterrupted()) return null;
-
-                    FileResult result = localComparator.get().compareFileInTwoCommits(
-                            repoDir, pair.oldCommit(), pair.newCommit(), file, false
-                    );
-
-                    if (result != null) {
-
-                        Map<String, Integer> fileMetrics = result.getMetrics();
-                        if (fileMetrics != null) {
-                            fileMetrics.forEach((key, count) -> {
-                                try {
-                                    MutationKind kind = MutationKind.valueOf(key);
-                                    safePatternCounts.merge(kind, count, Integer::sum);
-                                } catch (IllegalArgumentException ignored) {
-                                    // Ignore non-pattern metrics
-                                }
-                            });
+            try (ComparisonResultWriter resultWriter = new ComparisonResultWriter(repoUrl)) {
+                long processingStart = System.currentTimeMillis();
+
+                // One pool for the whole repo; batches only bound how many commits are resolved at once
+                ComparisonPipeline pipeline = new ComparisonPipeline(
+                        workerCountController, IN_FLIGHT_PER_THREAD,
+                        config.diffBudget(), config.slowLaneBudget(), repoDir,
+                        treeComparatorProvider, resultWriter, repoPatternCounts);
+                try {
+                    for (int batchStart = 0; batchStart < totalPairs; batchStart += BATCH_SIZE) {
+                        int batchEnd = Math.min(batchStart + BATCH_SIZE, totalPairs);
+                        List<CommitPairWithFiles> batch;
+                        try {
+                            batch = commitPairs.resolve(repoManager.getCurrentRepository(), batchStart, batchEnd);
+                        } catch (IOException e) {
+                            System.err.println("Error resolving commit pairs " + (batchStart + 1) + " - " + batchEnd + ": " + e.getMessage());
+                            continue;
                         }
 
-                        if (!result.getEditOperations().isEmpty()) {
-                            FileResultDto dto = ResultMapper.toDto(result);
-                            batchResults.add(dto);
+                        System.out.printf("Queuing batch %d - %d / %d%n", batchStart + 1, batchEnd, totalPairs);
+                        for (CommitPairWithFiles pair : batch) {
+                            pipeline.submit(pair);
                         }
+                        printProgressBar(pipeline.completedCount(), pipeline.submittedCount());
+                        System.out.println();
 
+                        long used = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+                        System.out.println("Memory used (MB): " + used / (1024 * 1024));
+                        System.out.println(parsedSourceCache.describeStats());
+                        System.out.println("Diff workers: " + workerCountController.getCurrentLevel());
                     }
-
-
-
-                    return null;
-                });
-                taskCount++;
-            }
-        }
-
-        long submissionEnd = System.currentTimeMillis();
-        System.out.printf("Time to submit %d tasks: %.2f seconds%n", taskCount, (submissionEnd - submissionStart) / 1000.0);
-
-        int completed = 0;
-        long processingStart = System.currentTimeMillis();
-        long lastPrintTime = System.currentTimeMillis();
-
-        while (completed < taskCount) {
-            try {
-                Future<Void> future = cs.take();
-                future.get();
-                completed++;
-
-                long now = System.currentTimeMillis();
-                if (now - lastPrintTime >= 1000 || completed == taskCount) { // throttle to once per second or on final
-                    printProgressBar(completed, taskCount);
-                    lastPrintTime = now;
+                    System.out.println("All batches queued, waiting for remaining files...");
+                } finally {
+                    pipeline.close();
                 }
-
-            } catch (ExecutionException e) {
-                System.err.println("Task failed: " + e.getCause());
-            } catch (InterruptedException e) {
-                System.err.println("Processing interrupted.");
-                Thread.currentThread().interrupt(); // Preserve interrupt flag
-                break;
+                System.out.printf("Files compared: %d, failed: %d, retried in slow lane: %d, skipped on timeout: %d%n",
+                        pipeline.completedCount(), pipeline.failedCount(),
+                        pipeline.slowLaneRetryCount(), pipeline.timedOutCount());
+
+                System.out.printf("Time to process repo: %.2f seconds%n",
+                        (System.currentTimeMillis() - processingStart) / 1000.0);
+                resultWriter.setPatternCounts(repoPatternCounts);
+            } catch (IOException e) {
+                System.err.println("Failed to write comparison JSON for " + repoUrl + ": " + e.getMessage());
+                continue;
             }
-        }
-
-        long processingEnd = System.currentTimeMillis();
-        System.out.printf("Time to process batch: %.2f seconds%n", (processingEnd - processingStart) / 1000.0);
-
-        exec.shutdown();
-        System.out.println();
+            System.out.println("Wrote patternCounts for " + repoName);
 
-        long jsonStart = System.currentTimeMillis();
-        JsonUtils.appendBatchResults(repoUrl, new ArrayList<>(batchResults));
-        batchResults.clear();
-        long jsonEnd = System.currentTimeMillis();
-        System.out.printf("Time to write JSON results: %.2f seconds%n", (jsonEnd - jsonStart) / 1000.0);
+            JsonUtils.filterUniqueOperations(repoUrl, config.isOffHeapDedup());
 
-        long totalEnd = System.currentTimeMillis();
-        System.out.printf("Total time for processBatch: %.2f seconds%n", (totalEnd - totalStart) / 1000.0);
+            System.out.println(parsedSourceCache.describeStats());
+            System.out.println(TreeComparator.describeMergeMetrics());
+            System.out.println(ChangeClassifier.describePatternStats());
+            parsedSourceCache.clear();
+            repoManager.closeRepository();
 
-        // Update shared repoPatternCounts after batch is done
-        safePatternCounts.forEach((k, v) ->
-                repoPatternCounts.merge(k, v, Integer::sum)
-        );
+            System.out.println();
+        }
     }
 
     private  void printProgressBar(int current, int total) {
@@ -842,49 +776,6 @@ public class Main implements CommandLineRunner {
         return normalizedPath.substring(lastSeparatorIndex + 1);
     }
 
-    /**
-     * Resets the project to clean state using git checkout .
-     * @param projectPath the path to the project directory
-     * @throws Exception if git reset fails
-     */
-    private void resetProjectToCleanState(String projectPath) throws Exception {
-        try {
-            ProcessBuilder pb = new ProcessBuilder("git", "checkout", ".");
-            pb.directory(new File(projectPath));
-            pb.redirectErrorStream(true);
-
-            Process process = pb.start();
-
-            // Read output for debugging
-            StringBuilder output = new StringBuilder();
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    output.append(line).append("\n");
-                }
-            }
-
-            int exitCode = process.waitFor();
-
-            if (exitCode != 0) {
-                System.err.println("Git checkout failed with exit code: " + exitCode);
-                System.err.println("Output: " + output.toString());
-                throw new RuntimeException("Failed to reset project to clean state");
-            }
-
-            // Optional: also clean any untracked files
-            ProcessBuilder pbClean = new ProcessBuilder("git", "clean", "-fd");
-            pbClean.directory(new File(projectPath));
-            pbClean.redirectErrorStream(true);
-
-            Process cleanProcess = pbClean.start();
-            cleanProcess.waitFor(); // We don't check exit code for clean as it's optional
-
-        } catch (IOException | InterruptedException e) {
-            throw new Exception("Failed to reset project state: " + e.getMessage(), e);
-        }
-    }
-
     // =========================================================================
     // STEP -1: Setup PITest Plugin and Compile Project
     // =========================================================================
@@ -4,7 +4,11 @@ package com.example;
 import com.example.classifier.ChangeClassifier;
 import com.example.classifier.MutationKind;
 import com.example.pojo.ClassifiedOperation;
+import com.example.pojo.ParsedSource;
+import com.example.service.DeadlineExecutor;
 import com.example.service.GitRepositoryManager;
+import com.example.service.MethodDiffPool;
+import com.example.service.ParsedSourceCache;
 import com.example.util.TreeUtils;
 import gumtree.spoon.AstComparator;
 import gumtree.spoon.diff.Diff;
@@ -23,13 +27,18 @@ import spoon.Launcher;
 import spoon.compiler.Environment;
 import spoon.reflect.CtModel;
 import spoon.reflect.code.*;
+import spoon.reflect.cu.SourcePosition;
 import spoon.reflect.declaration.CtAnnotation;
 import spoon.reflect.declaration.CtMethod;
 
 
 import com.example.pojo.FileResult;
+import com.example.util.ConcatList;
 import com.example.util.GitUtils;
+import com.example.util.SourceText;
+import com.example.util.SpoonSourceParser;
 import com.google.common.base.Stopwatch;
+import com.google.common.hash.HashCode;
 
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.slf4j.Logger;
@@ -37,8 +46,12 @@ import org.slf4j.LoggerFactory;
 import spoon.reflect.declaration.CtElement;
 
 import java.io.File;
+import java.lang.management.ManagementFactory;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -54,15 +67,56 @@ import static com.example.EditOperation.Type.*;
 @Component
 @Scope("prototype")
 public class TreeComparator {
+    public static final String SKIPPED_TIMEOUT = "skipped: timeout";
+
     private static long maxDiffTimeMs = 0;
 
+    /** Upper bound on elements indexed for move merging in one file; past it MOVEs stay unmerged. */
+    private static final int MAX_MERGE_INDEX_ELEMENTS = 200_000;
+    private static final LongAdder moveMerges = new LongAdder();
+    private static final LongAdder deleteInsertMerges = new LongAdder();
+    private static final LongAdder mergeGuardHits = new LongAdder();
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
     private final ChangeClassifier changeClassifier;
     private final GitRepositoryManager gitRepositoryManager;
+    private final ParsedSourceCache parsedSourceCache;
+    private final MethodDiffPool methodDiffPool;
+    private final DeadlineExecutor deadlineExecutor;
     @Autowired
-    public TreeComparator(ChangeClassifier changeClassifier, GitRepositoryManager gitRepositoryManager) {
+    public TreeComparator(ChangeClassifier changeClassifier,
+                          GitRepositoryManager gitRepositoryManager,
+                          ParsedSourceCache parsedSourceCache,
+                          MethodDiffPool methodDiffPool,
+                          DeadlineExecutor deadlineExecutor) {
         this.changeClassifier = changeClassifier;
         this.gitRepositoryManager = gitRepositoryManager;
+        this.parsedSourceCache = parsedSourceCache;
+        this.methodDiffPool = methodDiffPool;
+        this.deadlineExecutor = deadlineExecutor;
     }
+
+    /**
+     * GumTree runs of a file that ran out of budget, finished or still going, by method
+     * signature. Handing it back to a retry with a larger budget resumes the file: finished
+     * methods aren't diffed again and the one that was cut off is waited for, not restarted.
+     */
+    public static class PartialDiff {
+        private final Map<String, Future<TimedDiff>> diffs = new ConcurrentHashMap<>();
+
+        /**
+         * Gives up on the file: diffs that haven't started are dropped, running ones are left
+         * to finish on their thread, as GumTree can't be interrupted, and their results discarded.
+         */
+        public void cancel() {
+            diffs.values().forEach(diff -> diff.cancel(true));
+            diffs.clear();
+        }
+    }
+
+    /** A GumTree result and, in debug runs, the bytes its thread allocated for it. */
+    private record TimedDiff(Diff diff, long allocatedBytes) {}
     
     private  final Logger log = LoggerFactory.getLogger("fileOnlyLogger");
 
@@ -76,34 +130,64 @@ public class TreeComparator {
             RevCommit newCommit,
             String fileName,
             boolean debug) {
+        return compareFileInTwoCommits(localPath, oldCommit, newCommit, fileName, null, debug);
+    }
+
+    public  FileResult compareFileInTwoCommits(
+            String localPath,
+            RevCommit oldCommit,
+            RevCommit newCommit,
+            String fileName,
+            FileHunks hunks,
+            boolean debug) {
+        return compareFileInTwoCommits(localPath, oldCommit, newCommit, fileName, hunks, DiffBudget.UNLIMITED, debug);
+    }
 
-        File oldFile = GitUtils.extractFileAtCommit(oldCommit, fileName);
-        File newFile = GitUtils.extractFileAtCommit(newCommit, fileName);
+    public  FileResult compareFileInTwoCommits(
+            String localPath,
+            RevCommit oldCommit,
+            RevCommit newCommit,
+            String fileName,
+            FileHunks hunks,
+            DiffBudget budget,
+            boolean debug) {
+        return compareFileInTwoCommits(localPath, oldCommit, newCommit, fileName, hunks, budget, null, debug);
+    }
 
-        if (debug) {
-            System.out.println("Temp file path: "
-                    + (oldFile != null ? oldFile.getAbsolutePath() : "null")
-                    + " → "
-                    + (newFile != null ? newFile.getAbsolutePath() : "null"));
-        }
+    /**
+     * @param hunks changed line ranges of the file; when present, only methods overlapping
+     *              a hunk are diffed. {@code null} diffs every method.
+     * @param budget time allowed for the file; when it runs out the result is an empty one
+     *               whose skip reason is {@link #SKIPPED_TIMEOUT}, carrying the diffs made so far
+     * @param resume the partial diff of an earlier attempt at the same file, or {@code null}
+     */
+    public  FileResult compareFileInTwoCommits(
+            String localPath,
+            RevCommit oldCommit,
+            RevCommit newCommit,
+            String fileName,
+            FileHunks hunks,
+            DiffBudget budget,
+            PartialDiff resume,
+            boolean debug) {
+
+        SourceText oldSource = GitUtils.readFileAtCommit(oldCommit, fileName);
+        SourceText newSource = GitUtils.readFileAtCommit(newCommit, fileName);
 
-        if (oldFile == null || newFile == null) {
+        if (oldSource == null || newSource == null) {
             System.out.println("Couldn't extract both versions for: " + fileName);
             return null;
         }
 
         try {
-            return compareFiles(oldFile, newFile, fileName, oldCommit, newCommit, debug);
+            return compareFiles(oldSource, newSource, fileName, hunks, budget, resume, oldCommit, newCommit, debug);
         } catch (Exception e) {
             if (debug) {
-                System.out.println(oldFile);
-                System.out.println(newFile);
+                System.out.println(getCommitName(oldCommit) + ":" + fileName);
+                System.out.println(getCommitName(newCommit) + ":" + fileName);
                 System.err.println("Failed comparing files: " + e.getMessage() + Arrays.toString(e.getStackTrace()));
             }
             return null;
-        } finally {
-            oldFile.delete();
-            newFile.delete();
         }
     }
 
@@ -120,12 +204,12 @@ public class TreeComparator {
             return null;
         }
 
-        File oldFile = new File(oldFilePath);
-        File newFile = new File(newFilePath);
         String fileName = extractName(oldFilePath, newFilePath);
 
         try {
-            return compareFiles(oldFile, newFile, fileName, null, null, debug);
+            SourceText oldSource = SourceText.read(new File(oldFilePath));
+            SourceText newSource = SourceText.read(new File(newFilePath));
+            return compareFiles(oldSource, newSource, fileName, null, DiffBudget.UNLIMITED, null, null, null, debug);
         } catch (Exception e) {
             if (debug) {
                 System.err.println("Failed comparing files: " + e.getMessage() + Arrays.toString(e.getStackTrace()));
@@ -134,53 +218,104 @@ public class TreeComparator {
         }
     }
 
+    /**
+     * Diffs the methods both versions have in common. With {@code hunks}, methods that overlap
+     * no changed line are skipped before they are fingerprinted or diffed. Parsing and method
+     * indexing still cover the whole file: Spoon builds a model per compilation unit, and the
+     * cached model of a blob is reused by the next commit pair, whose hunks differ.
+     */
     public FileResult compareFiles(
-            File oldFile,
-            File newFile,
+            SourceText oldSource,
+            SourceText newSource,
             String fileName,
+            FileHunks hunks,
+            DiffBudget budget,
+            PartialDiff resume,
             RevCommit oldCommit,
             RevCommit newCommit,
             boolean debug
     ) throws Exception {
         Stopwatch sw = Stopwatch.createStarted();
-        //System.out.println(oldFile.toString());
-        //System.out.println(newFile.toString());
-        CtModel oldModel = buildModel(oldFile);
-        CtModel newModel = buildModel(newFile);
-        stripComments(oldModel);
-        stripComments(newModel);
+        PartialDiff progress = resume != null ? resume : new PartialDiff();
+        ParsedSource oldParsed = parsedSourceCache.get(oldSource, this::parse);
+        ParsedSource newParsed = parsedSourceCache.get(newSource, this::parse);
 
-        Map<String, CtMethod<?>> oldMap = indexMethods(oldModel);
-        Map<String, CtMethod<?>> newMap = indexMethods(newModel);
+        Map<String, CtMethod<?>> oldMap = oldParsed.getMethods();
+        Map<String, CtMethod<?>> newMap = newParsed.getMethods();
 
-        AstComparator comparator = new AstComparator();
         List<EditOperation> allOps = new ArrayList<>();
         List<Operation> allRawOps = new ArrayList<>();
         Map<Operation, ClassifiedOperation> classification = new LinkedHashMap<>();
         Map<String, Integer> metrics = initMetrics();
+        int unchangedMethods = 0;
+        int diffedMethods = 0;
+        long diffAllocatedBytes = 0;
+
+        List<String> sigs = new ArrayList<>(intersection(oldMap.keySet(), newMap.keySet()));
+        List<String> changedSigs = new ArrayList<>();
+        for (String sig : sigs) {
+            if (hunks != null && !touchesHunk(hunks, oldMap.get(sig), newMap.get(sig))) {
+                unchangedMethods++;
+                continue;
+            }
+            if (isUnchanged(sig, oldParsed, newParsed)) {
+                unchangedMethods++;
+                continue;
+            }
+            changedSigs.add(sig);
+        }
 
-        for (String sig : intersection(oldMap.keySet(), newMap.keySet())) {
-            CtMethod<?> oldMethod = oldMap.get(sig);
-            CtMethod<?> newMethod = newMap.get(sig);
-            String methodName = (newMethod != null ? newMethod.getSignature() : oldMethod.getSignature());
-
-            if (debug) System.out.printf("– diffing %s%n", sig);
+        // large files start all their method diffs on the fork-join pool, each running on a pool
+        // thread of its own; merging below awaits them in signature order under their deadlines,
+        // so both paths produce the same result
+        if (methodDiffPool.shouldFork(changedSigs.size())) {
+            for (String sig : changedSigs) {
+                CtMethod<?> oldMethod = oldMap.get(sig);
+                CtMethod<?> newMethod = newMap.get(sig);
+                progress.diffs.computeIfAbsent(sig, s -> methodDiffPool.submit(
+                        () -> timedDiff(new AstComparator(), oldMethod, newMethod, debug)));
+            }
+        }
+        AstComparator comparator = new AstComparator();
 
-            Diff diff = diffMethods(comparator, oldMethod, newMethod);
+        int next = 0;
+        for (String sig : sigs) {
+            if (next == changedSigs.size() || !changedSigs.get(next).equals(sig)) {
+                // a skipped method adds no operations, but still counts towards the metrics
+                // exactly as it did when every method was diffed
+                updateMetrics(classification.values(), metrics);
+                continue;
+            }
+            MethodDiff methodDiff = diffMethod(sig, oldParsed, newParsed, comparator, budget, progress, sw, debug);
+            next++;
+            if (methodDiff.overBudget()) {
+                return timedOut(fileName, sw, progress, oldCommit, newCommit);
+            }
+            diffedMethods++;
+            if (debug) {
+                diffAllocatedBytes += methodDiff.allocatedBytes();
+                System.out.printf("  clone + diff allocated %d KB%n", methodDiff.allocatedBytes() / 1024);
+            }
 
-            processDiff(diff, oldFile, newFile, methodName, allOps, allRawOps, classification);
-            classifyOperations(diff.getRootOperations(), classification);
+            allOps.addAll(methodDiff.ops());
+            allRawOps.addAll(methodDiff.rawOps());
+            classification.putAll(methodDiff.classification());
             updateMetrics(classification.values(), metrics);
 
-            if (debug) printDebugInfo(classification.values(), methodName);
+            if (debug) printDebugInfo(classification.values(), methodDiff.methodName());
         }
         sw.stop();
 
         if (debug) System.out.printf(
-                "AST diff for %s took %d ms and yielded %d ops:%n",
+                "AST diff for %s took %d ms and yielded %d ops (%d unchanged methods skipped, " +
+                        "%d diffed, %d KB allocated, %d KB per diffed method):%n",
                 fileName,
                 sw.elapsed(TimeUnit.MILLISECONDS),
-                allOps.size()
+                allOps.size(),
+                unchangedMethods,
+                diffedMethods,
+                diffAllocatedBytes / 1024,
+                diffedMethods == 0 ? 0 : diffAllocatedBytes / 1024 / diffedMethods
         );
 
 
@@ -216,8 +351,8 @@ public class TreeComparator {
 
         return createFileResult(
                 fileName,
-                oldFile.getAbsolutePath(),
-                newFile.getAbsolutePath(),
+                oldSource.getName(),
+                newSource.getName(),
                 deletedMoveOperations,
                 metrics,
                 getCommitName(oldCommit),
@@ -226,26 +361,27 @@ public class TreeComparator {
     }
 
 
-    private CtModel buildModel(File file) {
-        Launcher launcher = new Launcher();
-        /*launcher.getEnvironment().setCommentEnabled(false);
-        launcher.getEnvironment().setNoClasspath(true);
-        launcher.getEnvironment().setIgnoreSyntaxErrors(true);
-        launcher.getEnvironment().setAutoImports(false);
-        launcher.getEnvironment().setShouldCompile(false);
-        */
-
-        launcher.addInputResource(file.getPath());
-        launcher.buildModel();
-        return launcher.getModel();
+    private FileResult timedOut(String fileName, Stopwatch sw, PartialDiff progress,
+                                RevCommit oldCommit, RevCommit newCommit) {
+        log.info("AST diff over budget: File '{}', Time {} ms, Old SHA: {}, New SHA: {}",
+                fileName,
+                sw.elapsed(TimeUnit.MILLISECONDS),
+                getCommitName(oldCommit),
+                getCommitName(newCommit));
+        return FileResult.builder()
+                .name(fileName)
+                .editOperations(List.of())
+                .metrics(Map.of())
+                .oldCommit(getCommitName(oldCommit))
+                .newCommit(getCommitName(newCommit))
+                .skipReason(SKIPPED_TIMEOUT)
+                .partialDiff(progress)
+                .build();
     }
 
-
-
-
-    private void stripComments(CtModel model) {
-        model.getElements(new TypeFilter<>(CtComment.class))
-                .forEach(CtComment::delete);
+    private ParsedSource parse(SourceText source) {
+        CtModel model = SpoonSourceParser.forCurrentThread().parse(source);
+        return new ParsedSource(source, model, indexMethods(model));
     }
 
 
@@ -254,7 +390,7 @@ public class TreeComparator {
                 .stream()
                 .collect(Collectors.toMap(
                         this::methodKey,         // method signature as key
-                        CtMethod::clone,
+                        Function.identity(),     // cloned in diffMethods, only if actually diffed
                         (first, second) -> {
                             throw new IllegalStateException(
                                     "Duplicate method signature encountered: " + first.getSignature()
@@ -300,15 +436,101 @@ public class TreeComparator {
         return common;
     }
 
-    private Diff diffMethods(AstComparator comparator,
+    /** True when either version of the method overlaps a changed line range. */
+    private boolean touchesHunk(FileHunks hunks, CtMethod<?> oldMethod, CtMethod<?> newMethod) {
+        SourcePosition oldPos = oldMethod.getPosition();
+        SourcePosition newPos = newMethod.getPosition();
+        if (!oldPos.isValidPosition() || !newPos.isValidPosition()) {
+            return true;
+        }
+        return hunks.touchesOld(oldPos.getLine(), oldPos.getEndLine())
+                || hunks.touchesNew(newPos.getLine(), newPos.getEndLine());
+    }
+
+    /** True when both versions of the method have the same token stream, ignoring comments and layout. */
+    private boolean isUnchanged(String sig, ParsedSource oldParsed, ParsedSource newParsed) {
+        HashCode oldHash = oldParsed.fingerprint(sig);
+        return oldHash != null && oldHash.equals(newParsed.fingerprint(sig));
+    }
+
+    /** Edit operations and classification of one method, merged into the file result in signature order. */
+    private record MethodDiff(String methodName,
+                              List<EditOperation> ops,
+                              List<Operation> rawOps,
+                              Map<Operation, ClassifiedOperation> classification,
+                              long allocatedBytes,
+                              boolean overBudget) {
+        static final MethodDiff OVER_BUDGET = new MethodDiff(null, List.of(), List.of(), Map.of(), 0, true);
+    }
+
+    /**
+     * Diffs and classifies one method. A diff already in {@code progress}, started on the method
+     * pool or by an earlier attempt, is awaited. Otherwise GumTree runs on the calling thread
+     * without a budget, and on a {@link DeadlineExecutor} thread, recorded in {@code progress},
+     * with one. Either way the method is over budget as soon as its deadline passes.
+     */
+    private MethodDiff diffMethod(String sig,
+                                  ParsedSource oldParsed,
+                                  ParsedSource newParsed,
+                                  AstComparator comparator,
+                                  DiffBudget budget,
+                                  PartialDiff progress,
+                                  Stopwatch sw,
+                                  boolean debug) {
+        if (budget.fileExceeded(sw.elapsed(TimeUnit.MILLISECONDS))) {
+            return MethodDiff.OVER_BUDGET;
+        }
+
+        CtMethod<?> oldMethod = oldParsed.getMethods().get(sig);
+        CtMethod<?> newMethod = newParsed.getMethods().get(sig);
+        String methodName = (newMethod != null ? newMethod.getSignature() : oldMethod.getSignature());
+
+        if (debug) System.out.printf("– diffing %s%n", sig);
+
+        TimedDiff timed;
+        if (budget.isUnlimited() && !progress.diffs.containsKey(sig)) {
+            timed = timedDiff(comparator, oldMethod, newMethod, debug);
+        } else {
+            Future<TimedDiff> running = progress.diffs.computeIfAbsent(sig, s -> deadlineExecutor.start(
+                    () -> timedDiff(new AstComparator(), oldMethod, newMethod, debug)));
+            Optional<TimedDiff> finished = DeadlineExecutor.await(
+                    running, budget.methodDeadlineMs(sw.elapsed(TimeUnit.MILLISECONDS)));
+            if (finished.isEmpty()) {
+                return MethodDiff.OVER_BUDGET;
+            }
+            timed = finished.get();
+        }
+        Diff diff = timed.diff();
+        long allocated = timed.allocatedBytes();
+
+        List<EditOperation> ops = new ArrayList<>();
+        List<Operation> rawOps = new ArrayList<>();
+        Map<Operation, ClassifiedOperation> classification = new LinkedHashMap<>();
+        processDiff(diff, oldParsed, newParsed, methodName, ops, rawOps, classification);
+        classifyOperations(diff.getRootOperations(), classification);
+        return new MethodDiff(methodName, ops, rawOps, classification, allocated, false);
+    }
+
+    private static TimedDiff timedDiff(AstComparator comparator,
+                                       CtMethod<?> oldMethod, CtMethod<?> newMethod, boolean debug) {
+        long allocStart = debug ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+        Diff diff = diffMethods(comparator, oldMethod, newMethod);
+        return new TimedDiff(diff, debug ? THREADS.getCurrentThreadAllocatedBytes() - allocStart : 0);
+    }
+
+    /**
+     * Diffs clones of the two methods: the originals belong to cached models shared between
+     * threads, and GumTree attaches its own metadata to the elements it scans.
+     */
+    private static Diff diffMethods(AstComparator comparator,
                              CtMethod<?> oldMethod, CtMethod<?> newMethod) {
         return comparator.compare(oldMethod.clone(), newMethod.clone());
     }
 
     private void processDiff(
             Diff diff,
-            File oldFile,
-            File newFile,
+            ParsedSource oldParsed,
+            ParsedSource newParsed,
             String methodName,
             List<EditOperation> allOps,
             List<Operation> allRawOps,
@@ -319,7 +541,7 @@ public class TreeComparator {
             return;
 
         for (Operation op : diff.getRootOperations()) {
-            EditOperation eo = toEditOperation(op, oldFile, newFile, methodName);
+            EditOperation eo = toEditOperation(op, oldParsed, newParsed, methodName);
             if (eo != null) {
                 allRawOps.add(op);
                 allOps.add(eo);
@@ -331,8 +553,8 @@ public class TreeComparator {
 
     private EditOperation toEditOperation(
             Operation op,
-            File oldFile,
-            File newFile,
+            ParsedSource oldParsed,
+            ParsedSource newParsed,
             String methodName
     ) {
         // 1) Determine the edit type
@@ -365,27 +587,28 @@ public class TreeComparator {
         // 3) Find corresponding JavaParser nodes (if any)
         Node jpSrc = null, jpDst = null;
         try {
-            //jpSrc = src != null ? TreeUtils.findJavaParserNode(oldFile, src).orElse(null) : null;
-            //jpDst = dst != null ? TreeUtils.findJavaParserNode(newFile, dst).orElse(null) : null;
+            jpSrc = src != null ? parsedSourceCache.javaParserIndex(oldParsed.getSource()).find(src).orElse(null) : null;
+            jpDst = dst != null ? parsedSourceCache.javaParserIndex(newParsed.getSource()).find(dst).orElse(null) : null;
         } catch (Exception e) {
 
             //System.err.println("Error extracting JavaParser node" + e);
         }
 
-        // 4) Build a uniform "before / after" context for any edit
-        List<String> context = new ArrayList<>();
+        // 4) Build a uniform "before / after" context for any edit, as a view over both sources
+        List<List<String>> contextParts = new ArrayList<>(4);
         try {
                 if (src != null) {
-                    context.add(EditOperation.BEFORE_MARKER);
-                    context.addAll(TreeUtils.extractCtElementContext(oldFile, src, 1));
+                    contextParts.add(List.of(EditOperation.BEFORE_MARKER));
+                    contextParts.add(TreeUtils.extractCtElementContext(oldParsed.getSource(), src, 1));
                 }
                 if (dst != null) {
-                    context.add(EditOperation.AFTER_MARKER);
-                    context.addAll(TreeUtils.extractCtElementContext(newFile, dst, 1));
+                    contextParts.add(List.of(EditOperation.AFTER_MARKER));
+                    contextParts.add(TreeUtils.extractCtElementContext(newParsed.getSource(), dst, 1));
                 }
         } catch (Exception e) {
             throw new RuntimeException("Error extracting context", e);
         }
+        List<String> context = ConcatList.of(contextParts);
 
         // 5) Construct and return the EditOperation
         return new EditOperation(
@@ -405,14 +628,11 @@ public class TreeComparator {
             List<Operation> ops,
             Map<Operation, ClassifiedOperation> classification
     ) {
-        for (var entry : changeClassifier.getRegisteredPatterns().entrySet()) {
-            MutationKind kind = entry.getKey();
-            ChangeClassifier.MutationPattern pattern = entry.getValue();
-            List<Operation> matches = pattern.matchingOperations(ops);
+        changeClassifier.matchingOperations(ops).forEach((kind, matches) -> {
             for (Operation o : matches) {
                 classification.get(o).addKind(kind);
             }
-        }
+        });
     }
 
     private void updateMetrics(Collection<ClassifiedOperation> classified,
@@ -454,117 +674,179 @@ public class TreeComparator {
         return unmutated;
     }
 
+    /**
+     * Folds each MOVE into the first DELETE or INSERT whose subtree contains the moved node,
+     * turning that operation into an UPDATE. DELETE subtrees come from the old tree, so they are
+     * matched against the move's source node; INSERT subtrees against its destination node.
+     * Containment is looked up in an identity map of every element under a DELETE or INSERT,
+     * built in one pass; past {@link #MAX_MERGE_INDEX_ELEMENTS} elements the edits are returned
+     * unmerged.
+     */
     private List<EditOperation> mergeChildMovesIntoParent(List<EditOperation> edits) {
-        // make a copy so we can remove elements safely
-        List<EditOperation> result = new ArrayList<>(edits);
+        Map<CtElement, List<Integer>> containedIn = new IdentityHashMap<>();
+        int indexed = 0;
+        boolean hasMoves = false;
+        for (int i = 0; i < edits.size(); i++) {
+            EditOperation e = edits.get(i);
+            hasMoves |= e.type() == MOVE;
+            if (e.type() != DELETE && e.type() != INSERT) {
+                continue;
+            }
+            CtElement root = nodeOf(e);
+            if (root == null) {
+                continue;
+            }
+            List<CtElement> descendants = root.getElements(new TypeFilter<>(CtElement.class));
+            indexed += descendants.size();
+            if (indexed > MAX_MERGE_INDEX_ELEMENTS) {
+                mergeGuardHits.increment();
+                return new ArrayList<>(edits);
+            }
+            for (CtElement descendant : descendants) {
+                containedIn.computeIfAbsent(descendant, k -> new ArrayList<>(1)).add(i);
+            }
+        }
+        if (!hasMoves || containedIn.isEmpty()) {
+            return new ArrayList<>(edits);
+        }
+
+        EditOperation[] replaced = new EditOperation[edits.size()];
+        boolean[] dropped = new boolean[edits.size()];
 
-        // iterate over a snapshot of the original list
-        for (EditOperation moveEo : new ArrayList<>(edits)) {
-            if (moveEo.type() != EditOperation.Type.MOVE) {
+        for (int m = 0; m < edits.size(); m++) {
+            EditOperation moveEo = edits.get(m);
+            if (moveEo.type() != MOVE) {
                 continue;
             }
-            CtElement moved = moveEo.dstNode();
 
-            // find the enclosing DELETE or INSERT
-            Optional<EditOperation> parentOpt = result.stream()
-                    .filter(e -> e.type() == EditOperation.Type.DELETE
-                            || e.type() == EditOperation.Type.INSERT)
-                    .filter(e -> {
-                        CtElement root = nodeOf(e);
-                        return root != null
-                                && root.getElements(new TypeFilter<>(CtElement.class))
-                                .contains(moved);
-                    })
-                    .findFirst();
-
-            if (parentOpt.isPresent()) {
-                EditOperation parent = parentOpt.get();
-
-                // **key change**: grab the full before/after from the MOVE
-                List<String> fullContext = new ArrayList<>();
-
-                if (parent.type() == EditOperation.Type.DELETE) {
-                    fullContext.addAll(parent.context());
-                    fullContext.add(EditOperation.AFTER_MARKER);
-                    fullContext.addAll(moveEo.extractAfterContext());
-                }else {
-                    fullContext.add(EditOperation.BEFORE_MARKER);
-                    fullContext.addAll(moveEo.extractBeforeContext());
-                    fullContext.addAll(parent.context());
+            // find the first enclosing DELETE or INSERT that hasn't absorbed a move yet
+            int parentIdx = Integer.MAX_VALUE;
+            for (int i : containedIn.getOrDefault(moveEo.srcNode(), List.of())) {
+                if (edits.get(i).type() == DELETE && replaced[i] == null) {
+                    parentIdx = Math.min(parentIdx, i);
+                    break;
+                }
+            }
+            for (int i : containedIn.getOrDefault(moveEo.dstNode(), List.of())) {
+                if (edits.get(i).type() == INSERT && replaced[i] == null) {
+                    parentIdx = Math.min(parentIdx, i);
+                    break;
                 }
+            }
+            if (parentIdx == Integer.MAX_VALUE) {
+                continue;
+            }
 
-                CtElement newSrc = parent.type() == DELETE
-                        ? parent.srcNode()
-                        : moved;
-                CtElement newDst = parent.type() == INSERT
-                        ? parent.dstNode()
-                        : moved;
-
-                EditOperation updated = new EditOperation(
-                        EditOperation.Type.UPDATE,
-                        newSrc,
-                        newDst,
-                        parent.srcJavaNode(),
-                        parent.dstJavaNode(),
-                        parent.method(),
-                        fullContext
-                );
+            EditOperation parent = edits.get(parentIdx);
+            // the lookup above needs the old-tree node for DELETEs, but the UPDATE keeps the
+            // destination node, as before
+            CtElement moved = moveEo.dstNode();
 
-                // swap out the parent for our new UPDATE, and drop the MOVE
-                int idx = result.indexOf(parent);
-                result.set(idx, updated);
-                result.remove(moveEo);
+            // **key change**: grab the full before/after from the MOVE
+            List<String> fullContext = new ArrayList<>();
+
+            if (parent.type() == EditOperation.Type.DELETE) {
+                fullContext.addAll(parent.context());
+                fullContext.add(EditOperation.AFTER_MARKER);
+                fullContext.addAll(moveEo.extractAfterContext());
+            }else {
+                fullContext.add(EditOperation.BEFORE_MARKER);
+                fullContext.addAll(moveEo.extractBeforeContext());
+                fullContext.addAll(parent.context());
             }
+
+            CtElement newSrc = parent.type() == DELETE
+                    ? parent.srcNode()
+                    : moved;
+            CtElement newDst = parent.type() == INSERT
+                    ? parent.dstNode()
+                    : moved;
+
+            // swap out the parent for our new UPDATE, and drop the MOVE
+            replaced[parentIdx] = new EditOperation(
+                    EditOperation.Type.UPDATE,
+                    newSrc,
+                    newDst,
+                    parent.srcJavaNode(),
+                    parent.dstJavaNode(),
+                    parent.method(),
+                    fullContext
+            );
+            dropped[m] = true;
+            moveMerges.increment();
         }
 
+        List<EditOperation> result = new ArrayList<>(edits.size());
+        for (int i = 0; i < edits.size(); i++) {
+            if (!dropped[i]) {
+                result.add(replaced[i] != null ? replaced[i] : edits.get(i));
+            }
+        }
         return result;
     }
 
+    /**
+     * Pairs each DELETE, in order, with the first still unpaired INSERT whose parent is of the
+     * same kind, and replaces the pair with an UPDATE appended after the remaining edits.
+     * Inserts are bucketed by parent kind up front, so this is a single pass over the edits.
+     */
     private List<EditOperation> mergeDeletesAndInsertsIntoUpdates(List<EditOperation> edits) {
-        List<EditOperation> result = new ArrayList<>(edits);
-        List<EditOperation> deletes = result.stream()
-                .filter(e -> e.type() == EditOperation.Type.DELETE)
-                .toList();
-        List<EditOperation> inserts = result.stream()
-                .filter(e -> e.type() == EditOperation.Type.INSERT)
-                .toList();
+        Map<String, Deque<EditOperation>> insertsByParent = new HashMap<>();
+        for (EditOperation e : edits) {
+            String key = e.type() == INSERT ? parentKind(e.dstNode()) : null;
+            if (key != null) {
+                insertsByParent.computeIfAbsent(key, k -> new ArrayDeque<>()).add(e);
+            }
+        }
 
-        for (EditOperation deleteOp : deletes) {
-            for (EditOperation insertOp : inserts) {
-                if (haveSameParent(deleteOp, insertOp)) {
-                    // Combine into UPDATE
-                    List<String> context = new ArrayList<>();
-                    context.addAll(deleteOp.context());
-                    context.addAll(insertOp.context());
-
-                    EditOperation update = new EditOperation(
-                            EditOperation.Type.UPDATE,
-                            deleteOp.srcNode(),
-                            insertOp.dstNode(),
-                            deleteOp.srcJavaNode(),
-                            insertOp.dstJavaNode(),
-                            deleteOp.method(),
-                            context
-                    );
-
-                    // Replace DELETE and INSERT with UPDATE
-                    result.remove(deleteOp);
-                    result.remove(insertOp);
-                    result.add(update);
-
-                    // Since we modified the list, break and restart outer loop
-                    return mergeDeletesAndInsertsIntoUpdates(result);
-                }
+        Set<EditOperation> merged = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<EditOperation> updates = new ArrayList<>();
+        for (EditOperation deleteOp : edits) {
+            String key = deleteOp.type() == DELETE ? parentKind(deleteOp.srcNode()) : null;
+            Deque<EditOperation> candidates = key != null ? insertsByParent.get(key) : null;
+            if (candidates == null || candidates.isEmpty()) {
+                continue;
             }
+            EditOperation insertOp = candidates.poll();
+
+            // Combine into UPDATE
+            updates.add(new EditOperation(
+                    EditOperation.Type.UPDATE,
+                    deleteOp.srcNode(),
+                    insertOp.dstNode(),
+                    deleteOp.srcJavaNode(),
+                    insertOp.dstJavaNode(),
+                    deleteOp.method(),
+                    ConcatList.of(List.of(deleteOp.context(), insertOp.context()))
+            ));
+            merged.add(deleteOp);
+            merged.add(insertOp);
+        }
+        if (updates.isEmpty()) {
+            return edits;
         }
+        deleteInsertMerges.add(updates.size());
 
+        // Replace DELETE and INSERT with UPDATE
+        List<EditOperation> result = new ArrayList<>(edits.size() - updates.size());
+        for (EditOperation e : edits) {
+            if (!merged.contains(e)) {
+                result.add(e);
+            }
+        }
+        result.addAll(updates);
         return result;
     }
 
-    private boolean haveSameParent(EditOperation a, EditOperation b) {
-        CtElement aParent = a.srcNode() != null ? a.srcNode().getParent() : null;
-        CtElement bParent = b.dstNode() != null ? b.dstNode().getParent() : null;
-        return aParent != null && bParent != null && aParent.getClass().getSimpleName().equals(bParent.getClass().getSimpleName());
+    private String parentKind(CtElement node) {
+        CtElement parent = node != null ? node.getParent() : null;
+        return parent != null ? parent.getClass().getSimpleName() : null;
+    }
+
+    /** Merge counters across all files compared so far. */
+    public static String describeMergeMetrics() {
+        return String.format("Edit merges: %d move->update, %d delete+insert->update, %d files over the merge size guard",
+                moveMerges.sum(), deleteInsertMerges.sum(), mergeGuardHits.sum());
     }
 
 
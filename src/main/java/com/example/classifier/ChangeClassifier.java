@@ -3,9 +3,19 @@ package com.example.classifier;
 import com.example.classifier.patterns.*;
 import gumtree.spoon.diff.operations.Operation;
 import org.springframework.stereotype.Service;
+import spoon.reflect.declaration.CtElement;
 
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,6 +28,33 @@ public class ChangeClassifier {
         List<Operation> matchingOperations(List<Operation> ops);
 
         String description();
+
+        /**
+         * Operations this pattern can match on. The pattern is only run on op lists holding at
+         * least one of them, so it must find nothing in a list without one. An empty set (the
+         * default) means the pattern runs on every op list.
+         */
+        default Set<Trigger> triggers() {
+            return Set.of();
+        }
+    }
+
+    /**
+     * An operation type together with a node type; an operation fires the trigger when it is
+     * an {@code action} and its source or destination node is a {@code node}.
+     */
+    public record Trigger(Class<? extends Operation> action, Class<? extends CtElement> node) {
+        boolean firedBy(Class<?> actionClass, Class<?> nodeClass) {
+            return action.isAssignableFrom(actionClass) && node.isAssignableFrom(nodeClass);
+        }
+    }
+
+    private record DispatchKey(Class<?> action, Class<?> node) {}
+
+    private static final class PatternStats {
+        final LongAdder runs = new LongAdder();
+        final LongAdder matches = new LongAdder();
+        final LongAdder nanos = new LongAdder();
     }
 
     private static final Map<MutationKind, MutationPattern> PATTERNS = Map.ofEntries(
@@ -57,16 +94,103 @@ public class ChangeClassifier {
 
     );
 
+    /** Patterns to run for a concrete (operation class, node class) pair, filled on first sight. */
+    private static final Map<DispatchKey, Set<MutationKind>> DISPATCH = new ConcurrentHashMap<>();
+
+    private static final Set<MutationKind> UNTRIGGERED = PATTERNS.entrySet().stream()
+            .filter(e -> e.getValue().triggers().isEmpty())
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toCollection(() -> EnumSet.noneOf(MutationKind.class)));
+
+    private static final Map<MutationKind, PatternStats> STATS = new EnumMap<>(MutationKind.class);
+
+    static {
+        PATTERNS.keySet().forEach(kind -> STATS.put(kind, new PatternStats()));
+    }
+
     /** Expose the enum→pattern map so you can do entrySet() on it */
     public Map<MutationKind, MutationPattern> getRegisteredPatterns() {
         return PATTERNS;
     }
 
+    /**
+     * Runs every pattern triggered by some operation in {@code ops} and returns what each one
+     * matched, leaving out patterns that matched nothing.
+     */
+    public Map<MutationKind, List<Operation>> matchingOperations(List<Operation> ops) {
+        Set<MutationKind> candidates = candidatesFor(ops);
+        Map<MutationKind, List<Operation>> result = new LinkedHashMap<>();
+        for (var entry : PATTERNS.entrySet()) {
+            if (!candidates.contains(entry.getKey())) {
+                continue;
+            }
+            List<Operation> matched = run(entry.getKey(), entry.getValue(), ops);
+            if (!matched.isEmpty()) {
+                result.put(entry.getKey(), matched);
+            }
+        }
+        return result;
+    }
+
     /** Old helper for just descriptions */
     public static List<String> classify(List<Operation> ops) {
-        return PATTERNS.values().stream()
-                .filter(p -> p.matches(ops))
-                .map(MutationPattern::description)
+        Set<MutationKind> candidates = candidatesFor(ops);
+        return PATTERNS.entrySet().stream()
+                .filter(e -> candidates.contains(e.getKey()))
+                .filter(e -> !run(e.getKey(), e.getValue(), ops).isEmpty())
+                .map(e -> e.getValue().description())
                 .collect(Collectors.toList());
     }
+
+    private static List<Operation> run(MutationKind kind, MutationPattern pattern, List<Operation> ops) {
+        PatternStats stats = STATS.get(kind);
+        long start = System.nanoTime();
+        List<Operation> matched = pattern.matchingOperations(ops);
+        stats.nanos.add(System.nanoTime() - start);
+        stats.runs.increment();
+        if (!matched.isEmpty()) {
+            stats.matches.increment();
+        }
+        return matched;
+    }
+
+    private static Set<MutationKind> candidatesFor(List<Operation> ops) {
+        Set<MutationKind> candidates = EnumSet.noneOf(MutationKind.class);
+        candidates.addAll(UNTRIGGERED);
+        for (Operation op : ops) {
+            addCandidates(op, op.getSrcNode(), candidates);
+            addCandidates(op, op.getDstNode(), candidates);
+        }
+        return candidates;
+    }
+
+    private static void addCandidates(Operation op, CtElement node, Set<MutationKind> candidates) {
+        if (node != null) {
+            candidates.addAll(DISPATCH.computeIfAbsent(
+                    new DispatchKey(op.getClass(), node.getClass()), ChangeClassifier::dispatch));
+        }
+    }
+
+    private static Set<MutationKind> dispatch(DispatchKey key) {
+        Set<MutationKind> kinds = EnumSet.noneOf(MutationKind.class);
+        PATTERNS.forEach((kind, pattern) -> {
+            if (pattern.triggers().stream().anyMatch(t -> t.firedBy(key.action(), key.node()))) {
+                kinds.add(kind);
+            }
+        });
+        return Collections.unmodifiableSet(kinds);
+    }
+
+    /** Per-pattern runs, op lists matched and time spent, most expensive first. */
+    public static String describePatternStats() {
+        StringBuilder sb = new StringBuilder("Pattern stats (runs / matched / ms):");
+        STATS.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<MutationKind, PatternStats> e) -> e.getValue().nanos.sum()).reversed())
+                .forEach(e -> sb.append(String.format("%n  %-34s %8d %8d %10.1f",
+                        e.getKey(),
+                        e.getValue().runs.sum(),
+                        e.getValue().matches.sum(),
+                        e.getValue().nanos.sum() / (double) TimeUnit.MILLISECONDS.toNanos(1))));
+        return sb.toString();
+    }
 }
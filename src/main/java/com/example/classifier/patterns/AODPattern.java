@@ -1,6 +1,7 @@
 package com.example.classifier.patterns;
 
 import com.example.classifier.ChangeClassifier;
+import com.example.classifier.ChangeClassifier.Trigger;
 import gumtree.spoon.diff.operations.DeleteOperation;
 import gumtree.spoon.diff.operations.MoveOperation;
 import gumtree.spoon.diff.operations.Operation;
@@ -65,6 +66,14 @@ public class AODPattern implements ChangeClassifier.MutationPattern {
         return matched;
     }
 
+    @Override
+    public Set<Trigger> triggers() {
+        return Set.of(
+                new Trigger(DeleteOperation.class, CtBinaryOperator.class),
+                new Trigger(MoveOperation.class, CtVariableRead.class)
+        );
+    }
+
     @Override
     public String description() {
         return "Mutation ‘AOD’ – replaces `a op b` (any arithmetic op) with one of its operands";
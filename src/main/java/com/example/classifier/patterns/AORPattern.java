@@ -1,6 +1,7 @@
 package com.example.classifier.patterns;
 
 import com.example.classifier.ChangeClassifier;
+import com.example.classifier.ChangeClassifier.Trigger;
 import gumtree.spoon.diff.operations.Operation;
 import gumtree.spoon.diff.operations.UpdateOperation;
 import spoon.reflect.code.CtBinaryOperator;
@@ -46,6 +47,11 @@ public class AORPattern implements ChangeClassifier.MutationPattern {
         return matched;
     }
 
+    @Override
+    public Set<Trigger> triggers() {
+        return Set.of(new Trigger(UpdateOperation.class, CtBinaryOperator.class));
+    }
+
     @Override
     public String description() {
         return "Mutation ‘AOR’ (arithmetic operator replaced according to AOR rules)";
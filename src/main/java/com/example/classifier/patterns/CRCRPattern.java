@@ -1,6 +1,7 @@
 package com.example.classifier.patterns;
 
 import com.example.classifier.ChangeClassifier;
+import com.example.classifier.ChangeClassifier.Trigger;
 import gumtree.spoon.diff.operations.*;
 import spoon.reflect.code.CtLiteral;
 import spoon.reflect.code.CtUnaryOperator;
@@ -9,6 +10,7 @@ import spoon.reflect.declaration.CtElement;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class CRCRPattern implements ChangeClassifier.MutationPattern {
 
@@ -105,6 +107,16 @@ public class CRCRPattern implements ChangeClassifier.MutationPattern {
         return List.of();
     }
 
+    @Override
+    public Set<Trigger> triggers() {
+        return Set.of(
+                new Trigger(UpdateOperation.class, CtLiteral.class),
+                new Trigger(DeleteOperation.class, CtLiteral.class),
+                new Trigger(InsertOperation.class, CtUnaryOperator.class),
+                new Trigger(MoveOperation.class, CtLiteral.class)
+        );
+    }
+
     @Override
     public String description() {
         return "Mutation ‘CRCR’ (constant replaced by one of CRCR1–CRCR6, including –c split into insert+move)";
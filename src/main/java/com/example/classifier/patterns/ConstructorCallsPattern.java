@@ -1,6 +1,7 @@
 package com.example.classifier.patterns;
 
 import com.example.classifier.ChangeClassifier.MutationPattern;
+import com.example.classifier.ChangeClassifier.Trigger;
 import gumtree.spoon.diff.operations.DeleteOperation;
 import gumtree.spoon.diff.operations.InsertOperation;
 import gumtree.spoon.diff.operations.Operation;
@@ -10,6 +11,7 @@ import spoon.reflect.declaration.CtElement;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class ConstructorCallsPattern implements MutationPattern {
 
@@ -48,6 +50,14 @@ public class ConstructorCallsPattern implements MutationPattern {
         return List.of();
     }
 
+    @Override
+    public Set<Trigger> triggers() {
+        return Set.of(
+                new Trigger(DeleteOperation.class, CtConstructorCall.class),
+                new Trigger(InsertOperation.class, CtLiteral.class)
+        );
+    }
+
     @Override
     public String description() {
         return "Mutation ‘Constructor Call → null’ (replaced `new X(...)` with `null`)";
@@ -1,6 +1,7 @@
 package com.example.classifier.patterns;
 
 import com.example.classifier.ChangeClassifier;
+import com.example.classifier.ChangeClassifier.Trigger;
 import gumtree.spoon.diff.operations.*;
 import spoon.reflect.code.*;
 import spoon.reflect.declaration.CtElement;
@@ -9,6 +10,7 @@ import spoon.reflect.reference.CtTypeReference;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class EmptyReturnsPattern implements ChangeClassifier.MutationPattern {
 
@@ -138,6 +140,18 @@ public class EmptyReturnsPattern implements ChangeClassifier.MutationPattern {
         return false;
     }
 
+    @Override
+    public Set<Trigger> triggers() {
+        return Set.of(
+                new Trigger(UpdateOperation.class, CtLiteral.class),
+                new Trigger(UpdateOperation.class, CtInvocation.class),
+                new Trigger(UpdateOperation.class, CtTypeAccess.class),
+                new Trigger(InsertOperation.class, CtInvocation.class),
+                new Trigger(DeleteOperation.class, CtConstructorCall.class),
+                new Trigger(MoveOperation.class, CtTypeReference.class)
+        );
+    }
+
     @Override
     public String description() {
         return "Mutation ‘EMPTY_RETURNS’ (empty defaults: \"\"/0/'\\u0000'/Optional.empty()/Collections.emptyList()/emptySet()/Wrapper.valueOf(0))";
@@ -1,6 +1,7 @@
 package com.example.classifier.patterns;
 
 import com.example.classifier.ChangeClassifier;
+import com.example.classifier.ChangeClassifier.Trigger;
 import gumtree.spoon.diff.operations.DeleteOperation;
 import gumtree.spoon.diff.operations.InsertOperation;
 import gumtree.spoon.diff.operations.MoveOperation;
@@ -15,6 +16,7 @@ import spoon.reflect.code.CtExpression;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class ExperimentalArgumentPropagationPattern
         implements ChangeClassifier.MutationPattern {
@@ -82,6 +84,15 @@ public class ExperimentalArgumentPropagationPattern
         return (node instanceof CtVariableRead<?> vr) ? vr : null;
     }
 
+    @Override
+    public Set<Trigger> triggers() {
+        return Set.of(
+                new Trigger(DeleteOperation.class, CtInvocation.class),
+                new Trigger(InsertOperation.class, CtVariableRead.class),
+                new Trigger(MoveOperation.class, CtVariableRead.class)
+        );
+    }
+
     @Override
     public String description() {
         return "Mutation ‘EXPERIMENTAL_ARGUMENT_PROPAGATION’ – replaces a method call with one of its parameters of matching type";
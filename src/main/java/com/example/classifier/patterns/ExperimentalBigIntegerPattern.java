@@ -1,6 +1,7 @@
 package com.example.classifier.patterns;
 
 import com.example.classifier.ChangeClassifier;
+import com.example.classifier.ChangeClassifier.Trigger;
 import gumtree.spoon.diff.operations.Operation;
 import gumtree.spoon.diff.operations.UpdateOperation;
 import spoon.reflect.code.CtExpression;
@@ -10,6 +11,7 @@ import spoon.reflect.reference.CtTypeReference;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class ExperimentalBigIntegerPattern implements ChangeClassifier.MutationPattern {
 
@@ -84,6 +86,11 @@ public class ExperimentalBigIntegerPattern implements ChangeClassifier.MutationP
                 && BIGINT.equals(d2.getQualifiedName());
     }
 
+    @Override
+    public Set<Trigger> triggers() {
+        return Set.of(new Trigger(UpdateOperation.class, CtInvocation.class));
+    }
+
     @Override
     public String description() {
         return "Mutation ‘EXPERIMENTAL_BIG_INTEGER’ – swaps one BigInteger instance‐method for another";
@@ -1,6 +1,7 @@
 package com.example.classifier.patterns;
 
 import com.example.classifier.ChangeClassifier;
+import com.example.classifier.ChangeClassifier.Trigger;
 import gumtree.spoon.diff.operations.DeleteOperation;
 import gumtree.spoon.diff.operations.Operation;
 import spoon.reflect.code.CtAssignment;
@@ -11,6 +12,7 @@ import spoon.reflect.declaration.CtElement;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class ExperimentalMemberVariablePattern implements ChangeClassifier.MutationPattern {
 
@@ -34,6 +36,11 @@ public class ExperimentalMemberVariablePattern implements ChangeClassifier.Mutat
         return matched;
     }
 
+    @Override
+    public Set<Trigger> triggers() {
+        return Set.of(new Trigger(DeleteOperation.class, CtAssignment.class));
+    }
+
     @Override
     public String description() {
         return "Mutation ‘EXPERIMENTAL_MEMBER_VARIABLE’ – removed assignment to a member variable (now initialized to its Java default)";
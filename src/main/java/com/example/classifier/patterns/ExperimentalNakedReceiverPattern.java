@@ -1,6 +1,7 @@
 package com.example.classifier.patterns;
 
 import com.example.classifier.ChangeClassifier;
+import com.example.classifier.ChangeClassifier.Trigger;
 import gumtree.spoon.diff.operations.*;
 import spoon.reflect.code.CtInvocation;
 import spoon.reflect.code.CtExpression;
@@ -8,6 +9,7 @@ import spoon.reflect.declaration.CtElement;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class ExperimentalNakedReceiverPattern implements ChangeClassifier.MutationPattern {
 
@@ -75,6 +77,14 @@ public class ExperimentalNakedReceiverPattern implements ChangeClassifier.Mutati
         return List.of();
     }
 
+    @Override
+    public Set<Trigger> triggers() {
+        return Set.of(
+                new Trigger(UpdateOperation.class, CtInvocation.class),
+                new Trigger(DeleteOperation.class, CtInvocation.class)
+        );
+    }
+
     @Override
     public String description() {
         return "Mutation ‘EXPERIMENTAL_NAKED_RECEIVER’ – replaces a method call with its naked receiver";
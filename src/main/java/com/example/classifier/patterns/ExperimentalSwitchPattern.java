@@ -1,6 +1,7 @@
 package com.example.classifier.patterns;
 
 import com.example.classifier.ChangeClassifier;
+import com.example.classifier.ChangeClassifier.Trigger;
 import gumtree.spoon.diff.operations.*;
 import spoon.reflect.code.CtCase;
 import spoon.reflect.code.CtLiteral;
@@ -76,6 +77,11 @@ public class ExperimentalSwitchPattern implements ChangeClassifier.MutationPatte
         return List.of();
     }
 
+    @Override
+    public Set<Trigger> triggers() {
+        return Set.of(new Trigger(MoveOperation.class, CtLiteral.class));
+    }
+
     @Override
     public String description() {
         return "Mutation ‘EXPERIMENTAL_SWITCH’ – swaps the switch’s default label with the first non-default case label (also catches the single‐literal‐move form)";
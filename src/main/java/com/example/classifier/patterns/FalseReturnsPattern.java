@@ -1,6 +1,7 @@
 package com.example.classifier.patterns;
 
 import com.example.classifier.ChangeClassifier;
+import com.example.classifier.ChangeClassifier.Trigger;
 import gumtree.spoon.diff.operations.Operation;
 import gumtree.spoon.diff.operations.UpdateOperation;
 import spoon.reflect.code.CtLiteral;
@@ -8,6 +9,7 @@ import spoon.reflect.code.CtReturn;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class FalseReturnsPattern implements ChangeClassifier.MutationPattern {
 
@@ -45,6 +47,11 @@ public class FalseReturnsPattern implements ChangeClassifier.MutationPattern {
         return dstLit.getParent(CtReturn.class) != null;
     }
 
+    @Override
+    public Set<Trigger> triggers() {
+        return Set.of(new Trigger(UpdateOperation.class, CtLiteral.class));
+    }
+
     @Override
     public String description() {
         return "Mutation ‘FALSE_RETURNS’ – replaced a boolean return value with false";
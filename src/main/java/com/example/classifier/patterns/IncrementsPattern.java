@@ -1,6 +1,7 @@
 package com.example.classifier.patterns;
 
 import com.example.classifier.ChangeClassifier;
+import com.example.classifier.ChangeClassifier.Trigger;
 import gumtree.spoon.diff.operations.Operation;
 import gumtree.spoon.diff.operations.UpdateOperation;
 import spoon.reflect.code.CtUnaryOperator;
@@ -9,6 +10,7 @@ import spoon.reflect.code.UnaryOperatorKind;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class IncrementsPattern implements ChangeClassifier.MutationPattern {
 
@@ -52,6 +54,11 @@ public class IncrementsPattern implements ChangeClassifier.MutationPattern {
                 || kind == UnaryOperatorKind.PREDEC;
     }
 
+    @Override
+    public Set<Trigger> triggers() {
+        return Set.of(new Trigger(UpdateOperation.class, CtElement.class));
+    }
+
     @Override
     public String description() {
         return "Mutation ‘INCREMENT_DECREMENT’ – detects i++ <-> i--";
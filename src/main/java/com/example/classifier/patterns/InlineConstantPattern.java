@@ -1,6 +1,7 @@
 package com.example.classifier.patterns;
 
 import com.example.classifier.ChangeClassifier;
+import com.example.classifier.ChangeClassifier.Trigger;
 import gumtree.spoon.diff.operations.Operation;
 import gumtree.spoon.diff.operations.UpdateOperation;
 import spoon.reflect.code.CtLiteral;
@@ -8,6 +9,7 @@ import spoon.reflect.declaration.CtElement;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class InlineConstantPattern implements ChangeClassifier.MutationPattern {
 
@@ -56,6 +58,11 @@ public class InlineConstantPattern implements ChangeClassifier.MutationPattern {
                 || o instanceof Double;
     }
 
+    @Override
+    public Set<Trigger> triggers() {
+        return Set.of(new Trigger(UpdateOperation.class, CtLiteral.class));
+    }
+
     @Override
     public String description() {
         return "Mutation ‘INLINE_CONSTS’ – modifies literal constants (e.g., boolean flip, numeric constant change)";
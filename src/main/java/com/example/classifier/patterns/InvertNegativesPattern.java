@@ -1,6 +1,7 @@
 package com.example.classifier.patterns;
 
 import com.example.classifier.ChangeClassifier;
+import com.example.classifier.ChangeClassifier.Trigger;
 import gumtree.spoon.diff.operations.DeleteOperation;
 import gumtree.spoon.diff.operations.MoveOperation;
 import gumtree.spoon.diff.operations.Operation;
@@ -12,6 +13,7 @@ import spoon.reflect.declaration.CtElement;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class InvertNegativesPattern implements ChangeClassifier.MutationPattern {
 
@@ -51,6 +53,14 @@ public class InvertNegativesPattern implements ChangeClassifier.MutationPattern
         return List.of();
     }
 
+    @Override
+    public Set<Trigger> triggers() {
+        return Set.of(
+                new Trigger(DeleteOperation.class, CtUnaryOperator.class),
+                new Trigger(MoveOperation.class, CtVariableRead.class)
+        );
+    }
+
     @Override
     public String description() {
         return "Mutation ‘INVERT_NEGS’ – removes unary negation from a variable (e.g., -x → x), with verified operand match";
@@ -1,6 +1,7 @@
 package com.example.classifier.patterns;
 
 import com.example.classifier.ChangeClassifier;
+import com.example.classifier.ChangeClassifier.Trigger;
 import gumtree.spoon.diff.operations.Operation;
 import gumtree.spoon.diff.operations.UpdateOperation;
 import spoon.reflect.code.BinaryOperatorKind;
@@ -10,6 +11,7 @@ import spoon.reflect.declaration.CtElement;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class MathPattern implements ChangeClassifier.MutationPattern {
 
@@ -48,6 +50,11 @@ public class MathPattern implements ChangeClassifier.MutationPattern {
         return matched;
     }
 
+    @Override
+    public Set<Trigger> triggers() {
+        return Set.of(new Trigger(UpdateOperation.class, CtBinaryOperator.class));
+    }
+
     @Override
     public String description() {
         return "Mutation ‘MATH’ – replaces binary arithmetic or bitwise operations according to predefined rules (e.g. + → -)";
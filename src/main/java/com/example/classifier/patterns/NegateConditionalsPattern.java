@@ -1,6 +1,7 @@
 package com.example.classifier.patterns;
 
 import com.example.classifier.ChangeClassifier;
+import com.example.classifier.ChangeClassifier.Trigger;
 import gumtree.spoon.diff.operations.Operation;
 import gumtree.spoon.diff.operations.UpdateOperation;
 import spoon.reflect.code.CtBinaryOperator;
@@ -10,6 +11,7 @@ import spoon.reflect.declaration.CtElement;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class NegateConditionalsPattern implements ChangeClassifier.MutationPattern {
 
@@ -43,6 +45,11 @@ public class NegateConditionalsPattern implements ChangeClassifier.MutationPatte
         return matched;
     }
 
+    @Override
+    public Set<Trigger> triggers() {
+        return Set.of(new Trigger(UpdateOperation.class, CtBinaryOperator.class));
+    }
+
     @Override
     public String description() {
         return "Mutation ‘NEGATE_CONDITIONALS’ – negates comparison operators (== ↔ !=, < ↔ >=, etc.)";
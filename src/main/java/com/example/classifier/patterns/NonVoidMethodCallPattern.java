@@ -1,6 +1,7 @@
 package com.example.classifier.patterns;
 
 import com.example.classifier.ChangeClassifier;
+import com.example.classifier.ChangeClassifier.Trigger;
 import gumtree.spoon.diff.operations.DeleteOperation;
 import gumtree.spoon.diff.operations.InsertOperation;
 import gumtree.spoon.diff.operations.Operation;
@@ -9,6 +10,7 @@ import spoon.reflect.code.CtLiteral;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class NonVoidMethodCallPattern implements ChangeClassifier.MutationPattern {
 
@@ -55,6 +57,14 @@ public class NonVoidMethodCallPattern implements ChangeClassifier.MutationPatter
                 || value.equals('\u0000');
     }
 
+    @Override
+    public Set<Trigger> triggers() {
+        return Set.of(
+                new Trigger(DeleteOperation.class, CtInvocation.class),
+                new Trigger(InsertOperation.class, CtLiteral.class)
+        );
+    }
+
     @Override
     public String description() {
         return "Mutation ‘NON_VOID_METHOD_CALLS’ – replaces method call with Java default value for its return type";
@@ -1,6 +1,7 @@
 package com.example.classifier.patterns;
 
 import com.example.classifier.ChangeClassifier;
+import com.example.classifier.ChangeClassifier.Trigger;
 import gumtree.spoon.diff.operations.DeleteOperation;
 import gumtree.spoon.diff.operations.InsertOperation;
 import gumtree.spoon.diff.operations.Operation;
@@ -10,6 +11,7 @@ import spoon.reflect.declaration.CtElement;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class NullReturnsPattern implements ChangeClassifier.MutationPattern {
 
@@ -44,6 +46,14 @@ public class NullReturnsPattern implements ChangeClassifier.MutationPattern {
         return (delOp != null && insOp != null) ? matched : List.of();
     }
 
+    @Override
+    public Set<Trigger> triggers() {
+        return Set.of(
+                new Trigger(DeleteOperation.class, CtExpression.class),
+                new Trigger(InsertOperation.class, CtLiteral.class)
+        );
+    }
+
     @Override
     public String description() {
         return "Mutation ‘NULL_RETURNS’ – replaces any non-null return value with null";
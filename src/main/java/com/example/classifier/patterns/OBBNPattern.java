@@ -1,6 +1,7 @@
 package com.example.classifier.patterns;
 
 import com.example.classifier.ChangeClassifier;
+import com.example.classifier.ChangeClassifier.Trigger;
 import gumtree.spoon.diff.operations.DeleteOperation;
 import gumtree.spoon.diff.operations.InsertOperation;
 import gumtree.spoon.diff.operations.MoveOperation;
@@ -13,6 +14,7 @@ import spoon.reflect.declaration.CtElement;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class OBBNPattern implements ChangeClassifier.MutationPattern {
 
@@ -70,6 +72,14 @@ public class OBBNPattern implements ChangeClassifier.MutationPattern {
                 || (oldKind == BinaryOperatorKind.BITOR  && newKind == BinaryOperatorKind.BITAND);
     }
 
+    @Override
+    public Set<Trigger> triggers() {
+        return Set.of(
+                new Trigger(UpdateOperation.class, CtBinaryOperator.class),
+                new Trigger(DeleteOperation.class, CtBinaryOperator.class)
+        );
+    }
+
     @Override
     public String description() {
         return "Mutation ‘OBBN’ – replaces bitwise operator (&, |) with flipped operator or single operand";
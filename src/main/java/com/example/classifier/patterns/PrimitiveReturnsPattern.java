@@ -1,6 +1,7 @@
 package com.example.classifier.patterns;
 
 import com.example.classifier.ChangeClassifier;
+import com.example.classifier.ChangeClassifier.Trigger;
 import gumtree.spoon.diff.operations.Operation;
 import gumtree.spoon.diff.operations.UpdateOperation;
 import spoon.reflect.code.CtLiteral;
@@ -8,6 +9,7 @@ import spoon.reflect.declaration.CtElement;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class PrimitiveReturnsPattern implements ChangeClassifier.MutationPattern {
 
@@ -47,6 +49,11 @@ public class PrimitiveReturnsPattern implements ChangeClassifier.MutationPattern
         return false;
     }
 
+    @Override
+    public Set<Trigger> triggers() {
+        return Set.of(new Trigger(UpdateOperation.class, CtLiteral.class));
+    }
+
     @Override
     public String description() {
         return "Mutation ‘PRIMITIVE_RETURNS’ – replaces primitive return values (int, char, double, etc.) with 0 or equivalent default";
@@ -1,6 +1,7 @@
 package com.example.classifier.patterns;
 
 import com.example.classifier.ChangeClassifier;
+import com.example.classifier.ChangeClassifier.Trigger;
 import gumtree.spoon.diff.operations.Operation;
 import gumtree.spoon.diff.operations.UpdateOperation;
 import spoon.reflect.code.BinaryOperatorKind;
@@ -46,6 +47,11 @@ public class RORPattern implements ChangeClassifier.MutationPattern {
         return matched;
     }
 
+    @Override
+    public Set<Trigger> triggers() {
+        return Set.of(new Trigger(UpdateOperation.class, CtBinaryOperator.class));
+    }
+
     @Override
     public String description() {
         return "Mutation ‘ROR’ – replaces relational operators (e.g., < with <=, == with !=)";
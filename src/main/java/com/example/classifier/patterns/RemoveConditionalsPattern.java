@@ -1,6 +1,7 @@
 package com.example.classifier.patterns;
 
 import com.example.classifier.ChangeClassifier;
+import com.example.classifier.ChangeClassifier.Trigger;
 import gumtree.spoon.diff.operations.DeleteOperation;
 import gumtree.spoon.diff.operations.InsertOperation;
 import gumtree.spoon.diff.operations.Operation;
@@ -9,6 +10,7 @@ import spoon.reflect.code.CtLiteral;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class RemoveConditionalsPattern implements ChangeClassifier.MutationPattern {
 
@@ -41,6 +43,14 @@ public class RemoveConditionalsPattern implements ChangeClassifier.MutationPatte
         return List.of();
     }
 
+    @Override
+    public Set<Trigger> triggers() {
+        return Set.of(
+                new Trigger(DeleteOperation.class, CtBinaryOperator.class),
+                new Trigger(InsertOperation.class, CtLiteral.class)
+        );
+    }
+
     @Override
     public String description() {
         return "Mutation ‘REMOVE_CONDITIONALS’ – replaces conditional (e.g., a == b) with boolean literal (true/false)";
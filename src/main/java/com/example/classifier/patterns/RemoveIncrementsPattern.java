@@ -1,6 +1,7 @@
 package com.example.classifier.patterns;
 
 import com.example.classifier.ChangeClassifier;
+import com.example.classifier.ChangeClassifier.Trigger;
 import gumtree.spoon.diff.operations.DeleteOperation;
 import gumtree.spoon.diff.operations.Operation;
 import spoon.reflect.code.CtUnaryOperator;
@@ -8,6 +9,7 @@ import spoon.reflect.code.UnaryOperatorKind;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class RemoveIncrementsPattern implements ChangeClassifier.MutationPattern {
 
@@ -30,6 +32,11 @@ public class RemoveIncrementsPattern implements ChangeClassifier.MutationPattern
         return matched;
     }
 
+    @Override
+    public Set<Trigger> triggers() {
+        return Set.of(new Trigger(DeleteOperation.class, CtUnaryOperator.class));
+    }
+
     @Override
     public String description() {
         return "Mutation ‘REMOVE_INCREMENTS’ – removes increment/decrement operations like ++i, i++, --i, i--";
@@ -1,12 +1,14 @@
 package com.example.classifier.patterns;
 
 import com.example.classifier.ChangeClassifier;
+import com.example.classifier.ChangeClassifier.Trigger;
 import gumtree.spoon.diff.operations.*;
 import spoon.reflect.code.*;
 import spoon.reflect.declaration.CtElement;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class ReturnValuesPattern implements ChangeClassifier.MutationPattern {
 
@@ -114,6 +116,18 @@ public class ReturnValuesPattern implements ChangeClassifier.MutationPattern {
         return true;
     }
 
+    @Override
+    public Set<Trigger> triggers() {
+        return Set.of(
+                new Trigger(UpdateOperation.class, CtLiteral.class),
+                new Trigger(DeleteOperation.class, CtLiteral.class),
+                new Trigger(InsertOperation.class, CtLiteral.class),
+                new Trigger(InsertOperation.class, CtUnaryOperator.class),
+                new Trigger(MoveOperation.class, CtConstructorCall.class),
+                new Trigger(MoveOperation.class, CtInvocation.class)
+        );
+    }
+
     @Override
     public String description() {
         return "Mutation ‘RETURN_VALS’ – mutates return values (flips booleans, replaces with 0, -x, or null, etc.)";
@@ -1,6 +1,7 @@
 package com.example.classifier.patterns;
 
 import com.example.classifier.ChangeClassifier;
+import com.example.classifier.ChangeClassifier.Trigger;
 import gumtree.spoon.diff.operations.Operation;
 import gumtree.spoon.diff.operations.UpdateOperation;
 import spoon.reflect.code.CtLiteral;
@@ -8,6 +9,7 @@ import spoon.reflect.declaration.CtElement;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class SimpleLiteralChangePattern implements ChangeClassifier.MutationPattern {
 
@@ -48,6 +50,11 @@ public class SimpleLiteralChangePattern implements ChangeClassifier.MutationPatt
         return a.equals(b);
     }
 
+    @Override
+    public Set<Trigger> triggers() {
+        return Set.of(new Trigger(UpdateOperation.class, CtLiteral.class));
+    }
+
     @Override
     public String description() {
         return "Mutation ‘LITERAL_CHANGE’ – replaces one simple literal value (String, int, boolean, char, etc.) with another";
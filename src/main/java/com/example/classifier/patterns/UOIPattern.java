@@ -1,6 +1,7 @@
 package com.example.classifier.patterns;
 
 import com.example.classifier.ChangeClassifier;
+import com.example.classifier.ChangeClassifier.Trigger;
 import gumtree.spoon.diff.operations.*;
 import spoon.reflect.code.CtUnaryOperator;
 import spoon.reflect.code.CtVariableRead;
@@ -9,6 +10,7 @@ import spoon.reflect.declaration.CtElement;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class UOIPattern implements ChangeClassifier.MutationPattern {
 
@@ -57,6 +59,14 @@ public class UOIPattern implements ChangeClassifier.MutationPattern {
                 || kind == UnaryOperatorKind.POSTDEC;
     }
 
+    @Override
+    public Set<Trigger> triggers() {
+        return Set.of(
+                new Trigger(DeleteOperation.class, CtVariableRead.class),
+                new Trigger(InsertOperation.class, CtUnaryOperator.class)
+        );
+    }
+
     @Override
     public String description() {
         return "Mutation ‘UOI’ – inserts unary increment/decrement operator (e.g., ++i, i--, etc.) on variables";
@@ -1,6 +1,7 @@
 package com.example.classifier.patterns;
 
 import com.example.classifier.ChangeClassifier;
+import com.example.classifier.ChangeClassifier.Trigger;
 import gumtree.spoon.diff.operations.DeleteOperation;
 import gumtree.spoon.diff.operations.Operation;
 import spoon.reflect.code.CtInvocation;
@@ -9,6 +10,7 @@ import spoon.reflect.reference.CtTypeReference;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class VoidMethodCallRemovalPattern implements ChangeClassifier.MutationPattern {
 
@@ -29,6 +31,11 @@ public class VoidMethodCallRemovalPattern implements ChangeClassifier.MutationPa
         return matched;
     }
 
+    @Override
+    public Set<Trigger> triggers() {
+        return Set.of(new Trigger(DeleteOperation.class, CtInvocation.class));
+    }
+
     @Override
     public String description() {
         return "Mutation ‘VOID_METHOD_CALLS’ – removes calls to methods with void return type";
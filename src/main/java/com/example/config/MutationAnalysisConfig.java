@@ -0,0 +1,117 @@
+package com.example.config;
+
+import com.example.DiffBudget;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tuning knobs bound from the {@code mutation-analysis.*} properties.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "mutation-analysis")
+public class MutationAnalysisConfig {
+
+    /** Upper bound on diff worker threads; 0 means one per available core. */
+    private int workerThreads = 0;
+
+    /** Threads used to scan commit pairs when building the cache; 0 means one per available core. */
+    private int scanThreads = 0;
+
+    /** Let the worker-count controller shrink and regrow the diff pool at runtime. */
+    private boolean adaptiveWorkers = true;
+
+    /** The controller never goes below this many diff workers. */
+    private int minWorkerThreads = 2;
+
+    /** System CPU load (0..1) below which the controller adds a worker back. */
+    private double targetCpuLoad = 0.9;
+
+    /** GC pause time per second of wall clock above which the controller sheds workers. */
+    private long maxGcPauseMsPerSecond = 50;
+
+    /** How often the controller samples CPU and GC and resizes the pool. */
+    private long adaptIntervalMs = 5000;
+
+    /** Time a file may spend in AST diffing before it is handed to the slow lane; 0 = unlimited. */
+    private long fileDiffBudgetMs = 60_000;
+
+    /** Time a single method diff may take before its file is handed to the slow lane; 0 = unlimited. */
+    private long methodDiffBudgetMs = 20_000;
+
+    /** Retry timed-out files on a separate single-thread lane with the budgets below. */
+    private boolean slowLaneEnabled = true;
+
+    private long slowLaneFileBudgetMs = 600_000;
+
+    private long slowLaneMethodBudgetMs = 0;
+
+    /** Files with at least this many methods to diff have them diffed in parallel; 0 = never. */
+    private int parallelMethodThreshold = 200;
+
+    /** Threads of the per-method diff pool; 0 means one per available core. */
+    private int methodDiffThreads = 0;
+
+    /** Project worktrees mutants are tested in concurrently; 0 means one per two available cores. */
+    private int mutantLanes = 0;
+
+    /** How a lane runs the tests of a mutant. */
+    private MutantRunner mutantRunner = MutantRunner.MAVEN;
+
+    /**
+     * Compile all mutants of a lane once as mutant schemata, each switched on at run time,
+     * instead of compiling every mutant on its own. Falls back to the latter if they don't compile.
+     */
+    private boolean mutantSchemata = false;
+
+    /**
+     * Run every relevant test of a mutant and report all failing ones, which the per-method
+     * effectiveness statistics need. Otherwise a mutant's tests run most-likely-killer first and
+     * stop at the first failure.
+     */
+    private boolean fullFailureSets = false;
+
+    /** Time the tests of one mutant may take in the hot-swap runner before it counts as timed out; 0 = unlimited. */
+    private long hotSwapTestTimeoutMs = 60_000;
+
+    /** Keep the operation dedup table of the filtered output in direct memory instead of on the heap. */
+    private boolean offHeapDedup = false;
+
+    public enum MutantRunner {
+        /** One {@code mvn test} per mutant, running the covering test classes. */
+        MAVEN,
+        /**
+         * A long-lived JVM per lane that recompiles the mutated file and runs the covering tests in-process.
+         * Needs the tool on an exploded classpath; it can't start from the packaged boot jar.
+         */
+        HOT_SWAP
+    }
+
+    public DiffBudget diffBudget() {
+        return new DiffBudget(fileDiffBudgetMs, methodDiffBudgetMs);
+    }
+
+    /** Budget for retries of timed-out files, or {@code null} when the slow lane is off. */
+    public DiffBudget slowLaneBudget() {
+        return slowLaneEnabled ? new DiffBudget(slowLaneFileBudgetMs, slowLaneMethodBudgetMs) : null;
+    }
+
+    public int resolvedWorkerThreads() {
+        return workerThreads > 0 ? workerThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+    public int resolvedMethodDiffThreads() {
+        return methodDiffThreads > 0 ? methodDiffThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+    public int resolvedMutantLanes() {
+        return mutantLanes > 0 ? mutantLanes : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    }
+
+    public int resolvedScanThreads() {
+        return scanThreads > 0 ? scanThreads : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -1,6 +1,12 @@
 package com.example.dto;
 
-import java.util.List;
+import com.example.FileHunks;
 
-public record CommitPairDTO(String oldCommitSha, String newCommitSha, List<String> changedFiles) {}
+import java.util.List;
+import java.util.Map;
 
+/** {@code hunks} is absent in caches written before hunk tracking and reads back as {@code null}. */
+public record CommitPairDTO(String oldCommitSha,
+                            String newCommitSha,
+                            List<String> changedFiles,
+                            Map<String, FileHunks> hunks) {}
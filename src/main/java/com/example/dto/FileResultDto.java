@@ -1,5 +1,6 @@
 package com.example.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
@@ -16,5 +17,7 @@ public class FileResultDto {
     private String newCommit;
     private Map<String, Integer> metrics;
     private List<EditOperationDto> editOperations;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String skipReason;
 }
 
@@ -1,6 +1,7 @@
 package com.example.mapper;
 
 import com.example.CommitPairWithFiles;
+import com.example.FileHunks;
 import com.example.dto.CommitPairDTO;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
@@ -8,7 +9,10 @@ import org.eclipse.jgit.revwalk.RevWalk;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class CommitPairMapper {
 
@@ -18,19 +22,36 @@ public class CommitPairMapper {
             dtos.add(new CommitPairDTO(
                     p.oldCommit().getName(),
                     p.newCommit().getName(),
-                    p.changedFiles()
+                    p.changedFiles(),
+                    p.hunks()
             ));
         }
         return dtos;
     }
 
+    /** Appends the pairs of {@code added} that are not already in {@code cached}. */
+    public static List<CommitPairDTO> merge(List<CommitPairDTO> cached, List<CommitPairDTO> added) {
+        List<CommitPairDTO> merged = new ArrayList<>(cached);
+        Set<String> seenIds = new HashSet<>();
+        for (CommitPairDTO dto : cached) {
+            seenIds.add(dto.oldCommitSha() + ":" + dto.newCommitSha());
+        }
+        for (CommitPairDTO dto : added) {
+            if (seenIds.add(dto.oldCommitSha() + ":" + dto.newCommitSha())) {
+                merged.add(dto);
+            }
+        }
+        return merged;
+    }
+
     public static List<CommitPairWithFiles> fromDTOs(Repository repo, List<CommitPairDTO> dtos) throws IOException {
         List<CommitPairWithFiles> pairs = new ArrayList<>();
         try (RevWalk walk = new RevWalk(repo)) {
             for (CommitPairDTO dto : dtos) {
                 RevCommit oldCommit = walk.parseCommit(repo.resolve(dto.oldCommitSha()));
                 RevCommit newCommit = walk.parseCommit(repo.resolve(dto.newCommitSha()));
-                pairs.add(new CommitPairWithFiles(oldCommit, newCommit, dto.changedFiles()));
+                Map<String, FileHunks> hunks = dto.hunks() != null ? dto.hunks() : Map.of();
+                pairs.add(new CommitPairWithFiles(oldCommit, newCommit, dto.changedFiles(), hunks));
             }
         }
         return pairs;
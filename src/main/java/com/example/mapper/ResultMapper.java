@@ -6,6 +6,8 @@ import com.example.dto.EditOperationDto;
 import com.example.dto.FileResultDto;
 import com.example.dto.RepoResultDto;
 import com.example.pojo.RepoResult;
+import com.example.util.NodeText;
+import spoon.reflect.declaration.CtElement;
 
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -27,7 +29,10 @@ public class ResultMapper {
             return "«missing code fragment»";
         }
         try {
-            return element.toString().trim().replaceAll("\\s+", " ");
+            if (element instanceof CtElement ctElement) {
+                return NodeText.collapsed(ctElement);
+            }
+            return NodeText.normalize(element.toString(), false);
         } catch (Exception e) {
             return "«error rendering node»";
         }
@@ -42,6 +47,7 @@ public class ResultMapper {
                 .editOperations(fileResult.getEditOperations().stream()
                         .map(ResultMapper::toDto)
                         .collect(Collectors.toList()))
+                .skipReason(fileResult.getSkipReason())
                 .build();
     }
 
@@ -0,0 +1,79 @@
+package com.example.mutation_tester.mutants_runner;
+
+import org.apache.commons.io.FileUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Lays the class files of one compiled mutant over a project's classes for a test run, and
+ * puts the originals back on {@link #close()}. Surefire puts additional classpath elements
+ * after the project's own classes, so a mutant's classes have to replace them to be seen.
+ * Replaced files keep their timestamp, so the compiler plugin doesn't take the main classes
+ * for changed and recompile the tests.
+ */
+public class ClassOverlay implements Closeable {
+    private final Path classesDir;
+    private final Path originalsDir;
+    private final List<Path> replaced;
+    private final List<Path> added;
+
+    private ClassOverlay(Path classesDir, Path originalsDir, List<Path> replaced, List<Path> added) {
+        this.classesDir = classesDir;
+        this.originalsDir = originalsDir;
+        this.replaced = replaced;
+        this.added = added;
+    }
+
+    /** Copies every class file below {@code mutantClassesDir} into {@code classesDir}. */
+    public static ClassOverlay apply(Path mutantClassesDir, Path classesDir) throws IOException {
+        Path originalsDir = mutantClassesDir.resolveSibling(mutantClassesDir.getFileName() + "-originals");
+        FileUtils.deleteQuietly(originalsDir.toFile());
+
+        List<Path> replaced = new ArrayList<>();
+        List<Path> added = new ArrayList<>();
+        ClassOverlay overlay = new ClassOverlay(classesDir, originalsDir, replaced, added);
+        try (Stream<Path> files = Files.walk(mutantClassesDir)) {
+            for (Path mutantClass : files.filter(Files::isRegularFile).toList()) {
+                Path relative = mutantClassesDir.relativize(mutantClass);
+                Path target = classesDir.resolve(relative);
+                if (Files.exists(target)) {
+                    Path original = originalsDir.resolve(relative);
+                    Files.createDirectories(original.getParent());
+                    Files.copy(target, original, StandardCopyOption.COPY_ATTRIBUTES);
+                    FileTime modified = Files.getLastModifiedTime(target);
+                    replaced.add(relative);
+                    Files.copy(mutantClass, target, StandardCopyOption.REPLACE_EXISTING);
+                    Files.setLastModifiedTime(target, modified);
+                } else {
+                    Files.createDirectories(target.getParent());
+                    added.add(relative);
+                    Files.copy(mutantClass, target);
+                }
+            }
+        } catch (IOException e) {
+            overlay.close();
+            throw e;
+        }
+        return overlay;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Path relative : replaced) {
+            Files.copy(originalsDir.resolve(relative), classesDir.resolve(relative),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+        }
+        for (Path relative : added) {
+            Files.deleteIfExists(classesDir.resolve(relative));
+        }
+        FileUtils.deleteQuietly(originalsDir.toFile());
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.mutation_tester.mutants_runner;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.apiguardian.api.API;
+import org.junit.platform.commons.util.ReflectionUtils;
+import org.junit.platform.engine.TestEngine;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.opentest4j.AssertionFailedError;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Handle on a long-lived {@link HotSwapTestRunnerMain} JVM for one project checkout. The
+ * project is built with Maven once, when the runner starts; after that every mutant costs one
+ * single-file compile and the covering tests, instead of a full Maven build and Surefire fork.
+ * A runner whose tests time out is killed, and {@link #isAlive()} turns false.
+ */
+public class HotSwapTestRunner implements Closeable {
+    static final String LOG_FILE = "target/hotswap-runner.log";
+
+    /**
+     * One mutant for the runner JVM to test, sent as a line of JSON: either a mutated source
+     * file, or the id of a mutant in the schemata the project was built with. The tests run
+     * in the given order; with {@code killFast} they stop at the first failing one.
+     */
+    public record Request(@JsonProperty("sourceFile") String sourceFile,
+                          @JsonProperty("mutantId") Integer mutantId,
+                          @JsonProperty("tests") List<String> tests,
+                          @JsonProperty("killFast") boolean killFast) {}
+
+    private final Process process;
+    private final BufferedWriter requests;
+    private final BufferedReader results;
+    private final ExecutorService reader;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final long testTimeoutMs;
+    private final boolean killFast;
+
+    private HotSwapTestRunner(Process process, long testTimeoutMs, boolean killFast) {
+        this.process = process;
+        this.requests = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+        this.results = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        this.reader = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "hotswap-runner-reader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.testTimeoutMs = testTimeoutMs;
+        this.killFast = killFast;
+    }
+
+    /**
+     * Compiles the project at {@code projectPath} with Maven, then starts the runner JVM on it.
+     *
+     * @param testTimeoutMs time the tests of one mutant may take; 0 = unlimited
+     * @param killFast      stop testing a mutant at its first failing test
+     */
+    public static HotSwapTestRunner start(Path projectPath, long testTimeoutMs, boolean killFast)
+            throws IOException, MavenInvocationException {
+        ProjectBuild.build(projectPath);
+        return launch(projectPath, testTimeoutMs, killFast);
+    }
+
+    /** Starts the runner JVM on a project {@link ProjectBuild} has already built. */
+    public static HotSwapTestRunner launch(Path projectPath, long testTimeoutMs, boolean killFast)
+            throws IOException {
+        List<String> command = List.of(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", runnerClasspath(),
+                HotSwapTestRunnerMain.class.getName(),
+                ProjectBuild.classesDir(projectPath).toString(),
+                ProjectBuild.testClassesDir(projectPath).toString(),
+                ProjectBuild.classpathFile(projectPath).toString());
+
+        Process process = new ProcessBuilder(command)
+                .directory(projectPath.toFile())
+                .redirectError(projectPath.resolve(LOG_FILE).toFile())
+                .start();
+        return new HotSwapTestRunner(process, testTimeoutMs, killFast);
+    }
+
+    /** Compiles the mutated {@code source} and runs {@code tests} against it, in order. */
+    public MutantTestResult test(Path source, Collection<String> tests) throws IOException {
+        return send(new Request(source.toString(), null, List.copyOf(tests), killFast));
+    }
+
+    /** Runs {@code tests} with mutant {@code mutantId} of the project's schemata switched on. */
+    public MutantTestResult testSchema(int mutantId, Collection<String> tests) throws IOException {
+        return send(new Request(null, mutantId, List.copyOf(tests), killFast));
+    }
+
+    private MutantTestResult send(Request request) throws IOException {
+        requests.write(mapper.writeValueAsString(request));
+        requests.newLine();
+        requests.flush();
+
+        Future<String> line = reader.submit(results::readLine);
+        try {
+            String json = testTimeoutMs > 0 ? line.get(testTimeoutMs, TimeUnit.MILLISECONDS) : line.get();
+            if (json == null) {
+                throw new IOException("Hot-swap test runner exited, see " + LOG_FILE);
+            }
+            return mapper.readValue(json, MutantTestResult.class);
+        } catch (TimeoutException e) {
+            process.destroyForcibly();
+            return MutantTestResult.timedOut();
+        } catch (ExecutionException e) {
+            throw new IOException("Couldn't read from the hot-swap test runner", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the hot-swap test runner", e);
+        }
+    }
+
+    public boolean isAlive() {
+        return process.isAlive();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            requests.close();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            process.destroyForcibly();
+        } finally {
+            reader.shutdownNow();
+        }
+    }
+
+    /**
+     * Only what the runner itself needs: this project's classes, Jackson and the JUnit Platform
+     * launcher. Anything more would shadow the project's own dependencies.
+     * <p>
+     * Every entry has to be a plain file or directory, so the runner can't be started from a
+     * packaged Spring Boot jar, whose classes and libraries sit in nested jars. Run the tool from
+     * an exploded classpath ({@code gradle run}/{@code bootRun}, {@code installDist} or the IDE).
+     */
+    private static String runnerClasspath() {
+        Set<String> entries = new LinkedHashSet<>();
+        for (Class<?> anchor : List.of(
+                HotSwapTestRunnerMain.class,
+                ObjectMapper.class, JsonParser.class, JsonProperty.class,
+                LauncherFactory.class, TestEngine.class, ReflectionUtils.class,
+                AssertionFailedError.class, API.class)) {
+            URL location = anchor.getProtectionDomain().getCodeSource().getLocation();
+            if (!"file".equals(location.getProtocol())) {
+                throw new IllegalStateException("The hot-swap test runner needs " + anchor.getName()
+                        + " on the file system, but it was loaded from " + location
+                        + ". Run from an exploded classpath instead of the boot jar, or use mutant-runner=MAVEN");
+            }
+            try {
+                entries.add(Paths.get(location.toURI()).toString());
+            } catch (URISyntaxException e) {
+                throw new IllegalStateException("Can't locate " + anchor.getName(), e);
+            }
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+}
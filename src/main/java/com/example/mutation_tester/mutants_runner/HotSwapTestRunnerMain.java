@@ -0,0 +1,338 @@
+package com.example.mutation_tester.mutants_runner;
+
+import com.example.mutation_tester.mutations_applier.MutantSwitch;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.platform.engine.DiscoverySelector;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectMethod;
+
+/**
+ * Test runner JVM started by {@link HotSwapTestRunner}. The project's dependencies are loaded
+ * once; for every mutant the mutated file is compiled by a {@link MutantCompiler}, the project's
+ * classes are loaded again through a fresh class loader that sees the mutant's classes first,
+ * and only the requested tests run, through the JUnit Platform Launcher. A project built with
+ * mutant schemata needs no compiling at all: the class loader is fresh, and only the mutant
+ * switched on differs.
+ * <p>
+ * Reads one {@link HotSwapTestRunner.Request} per stdin line and answers each with one
+ * {@link MutantTestResult} line on stdout. Anything the tests print goes to stderr. The JUnit
+ * Platform classes are shared with the project's test engines, so the project should use a
+ * JUnit 5 version compatible with this runner's launcher.
+ *
+ * <pre>
+ * HotSwapTestRunnerMain &lt;classes dir&gt; &lt;test classes dir&gt; &lt;dependency classpath file&gt;
+ * </pre>
+ */
+public class HotSwapTestRunnerMain {
+    /** Packages the launcher and the project's test engines must see as the same classes. */
+    private static final List<String> SHARED_PACKAGES = List.of(
+            "org.junit.platform.", "org.opentest4j.", "org.apiguardian.");
+
+    private final Path classesDir;
+    private final Path testClassesDir;
+    private final MutantCompiler compiler;
+    private final ClassLoader dependencyLoader;
+    /** Simple test class name, as in the method-to-test map, to fully qualified names. */
+    private final Map<String, List<String>> testClassesBySimpleName;
+
+    HotSwapTestRunnerMain(Path classesDir, Path testClassesDir, List<Path> dependencies) throws IOException {
+        this.classesDir = classesDir;
+        this.testClassesDir = testClassesDir;
+        List<Path> classpath = new ArrayList<>();
+        classpath.add(classesDir);
+        classpath.addAll(dependencies);
+        this.compiler = new MutantCompiler(classpath);
+        this.dependencyLoader = new URLClassLoader(urls(dependencies), new SharedPlatformClassLoader());
+        this.testClassesBySimpleName = indexTestClasses(testClassesDir);
+    }
+
+    public static void main(String[] args) throws IOException {
+        PrintStream protocol = System.out;
+        System.setOut(System.err);
+
+        HotSwapTestRunnerMain runner = new HotSwapTestRunnerMain(
+                Paths.get(args[0]), Paths.get(args[1]), MutantCompiler.readClasspath(Paths.get(args[2])));
+
+        ObjectMapper mapper = new ObjectMapper();
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            MutantTestResult result;
+            try {
+                HotSwapTestRunner.Request request = mapper.readValue(line, HotSwapTestRunner.Request.class);
+                result = request.mutantId() != null
+                        ? runner.testSchema(request.mutantId(), request.tests(), request.killFast())
+                        : runner.test(Paths.get(request.sourceFile()), request.tests(), request.killFast());
+            } catch (Throwable t) {
+                t.printStackTrace();
+                result = MutantTestResult.error(t.toString());
+            }
+            protocol.println(mapper.writeValueAsString(result));
+            protocol.flush();
+        }
+    }
+
+    MutantTestResult test(Path source, List<String> tests, boolean killFast) throws IOException {
+        MutantCompiler.Result compiled = compiler.compile(source);
+        if (!compiled.viable()) {
+            return MutantTestResult.nonViable(String.join("\n", compiled.errors()));
+        }
+
+        Path mutantDir = Files.createTempDirectory("mutant-classes-");
+        try {
+            MutantCompiler.writeClasses(compiled, mutantDir);
+            try (URLClassLoader mutantLoader = new ChildFirstClassLoader(
+                    urls(List.of(mutantDir, classesDir, testClassesDir)), dependencyLoader)) {
+                return runTests(mutantLoader, tests, killFast);
+            }
+        } finally {
+            deleteRecursively(mutantDir);
+        }
+    }
+
+    /**
+     * Runs {@code tests} against the project's own classes, built with mutant schemata, with
+     * mutant {@code mutantId} switched on. The fresh class loader reads the switch again.
+     */
+    MutantTestResult testSchema(int mutantId, List<String> tests, boolean killFast) throws IOException {
+        System.setProperty(MutantSwitch.PROPERTY, String.valueOf(mutantId));
+        try (URLClassLoader schemaLoader = new ChildFirstClassLoader(
+                urls(List.of(classesDir, testClassesDir)), dependencyLoader)) {
+            return runTests(schemaLoader, tests, killFast);
+        } finally {
+            System.clearProperty(MutantSwitch.PROPERTY);
+        }
+    }
+
+    /**
+     * Runs {@code tests} one at a time, in the given order, so each gets its own time and
+     * outcome; with {@code killFast} the tests after the first failing one are skipped.
+     */
+    private MutantTestResult runTests(ClassLoader loader, List<String> tests, boolean killFast) {
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(loader);
+        try {
+            Launcher launcher = LauncherFactory.create();
+            FailureCollector failures = new FailureCollector();
+            Map<String, MutantTestResult.TestRun> testRuns = new LinkedHashMap<>();
+            for (String test : tests) {
+                List<DiscoverySelector> selectors = selectors(loader, List.of(test));
+                if (selectors.isEmpty()) {
+                    continue;
+                }
+                LauncherDiscoveryRequest request = LauncherDiscoveryRequestBuilder.request()
+                        .selectors(selectors)
+                        .build();
+                int failedBefore = failures.failures;
+                long start = System.nanoTime();
+                launcher.execute(request, failures);
+                boolean failed = failures.failures > failedBefore;
+                testRuns.put(test, new MutantTestResult.TestRun(System.nanoTime() - start, failed));
+                if (failed && killFast) {
+                    break;
+                }
+            }
+
+            if (testRuns.isEmpty()) {
+                return MutantTestResult.error("None of the tests could be loaded: " + tests);
+            }
+            return failures.failed.isEmpty()
+                    ? MutantTestResult.survived(failures.testsStarted, testRuns)
+                    : MutantTestResult.killed(failures.testsStarted, failures.failed, testRuns);
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    /** Selectors for {@code Class#method} and plain class entries; unknown classes are skipped. */
+    private List<DiscoverySelector> selectors(ClassLoader loader, List<String> tests) {
+        List<DiscoverySelector> selectors = new ArrayList<>();
+        for (String test : tests) {
+            int hash = test.indexOf('#');
+            String className = hash < 0 ? test : test.substring(0, hash);
+            for (Class<?> testClass : loadTestClasses(loader, className)) {
+                if (hash < 0) {
+                    selectors.add(selectClass(testClass));
+                    continue;
+                }
+                String method = test.substring(hash + 1);
+                int paren = method.indexOf('(');
+                selectors.add(paren < 0
+                        ? selectMethod(testClass, method)
+                        : selectMethod(testClass, method.substring(0, paren),
+                                method.substring(paren + 1, method.lastIndexOf(')'))));
+            }
+        }
+        return selectors;
+    }
+
+    private List<Class<?>> loadTestClasses(ClassLoader loader, String className) {
+        List<String> names = className.contains(".")
+                ? List.of(className)
+                : testClassesBySimpleName.getOrDefault(className, List.of());
+        List<Class<?>> classes = new ArrayList<>();
+        for (String name : names) {
+            try {
+                classes.add(loader.loadClass(name));
+            } catch (ClassNotFoundException | LinkageError e) {
+                System.err.println("Couldn't load test class " + name + ": " + e);
+            }
+        }
+        return classes;
+    }
+
+    private static Map<String, List<String>> indexTestClasses(Path testClassesDir) throws IOException {
+        Map<String, List<String>> index = new HashMap<>();
+        if (!Files.isDirectory(testClassesDir)) {
+            return index;
+        }
+        try (Stream<Path> files = Files.walk(testClassesDir)) {
+            files.map(file -> testClassesDir.relativize(file).toString())
+                    .filter(name -> name.endsWith(".class") && !name.contains("$"))
+                    .map(name -> name.substring(0, name.length() - ".class".length())
+                            .replace(java.io.File.separatorChar, '.'))
+                    .forEach(name -> index
+                            .computeIfAbsent(name.substring(name.lastIndexOf('.') + 1), k -> new ArrayList<>())
+                            .add(name));
+        }
+        return index;
+    }
+
+    private static URL[] urls(List<Path> paths) {
+        URL[] urls = new URL[paths.size()];
+        for (int i = 0; i < urls.length; i++) {
+            try {
+                urls[i] = paths.get(i).toUri().toURL();
+            } catch (MalformedURLException e) {
+                throw new IllegalArgumentException(paths.get(i).toString(), e);
+            }
+        }
+        return urls;
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Counts started tests and records failed ones, and test classes that failed as a whole,
+     * e.g. in {@code @BeforeAll}.
+     */
+    private static class FailureCollector implements TestExecutionListener {
+        final Set<String> failed = new LinkedHashSet<>();
+        long testsStarted;
+        int failures;
+
+        @Override
+        public void executionStarted(TestIdentifier identifier) {
+            if (identifier.isTest()) {
+                testsStarted++;
+            }
+        }
+
+        @Override
+        public void executionFinished(TestIdentifier identifier, TestExecutionResult result) {
+            if (result.getStatus() != TestExecutionResult.Status.FAILED) {
+                return;
+            }
+            failures++;
+            TestSource source = identifier.getSource().orElse(null);
+            if (source instanceof MethodSource method) {
+                failed.add(method.getClassName() + "#" + method.getMethodName());
+            } else if (source instanceof ClassSource testClass) {
+                failed.add(testClass.getClassName());
+            } else if (identifier.isTest()) {
+                failed.add(identifier.getDisplayName());
+            }
+        }
+    }
+
+    /**
+     * Loads the project's own classes itself before asking its parent, so a mutant's classes
+     * replace the originals and everything else in the project links against them.
+     */
+    private static class ChildFirstClassLoader extends URLClassLoader {
+        ChildFirstClassLoader(URL[] urls, ClassLoader parent) {
+            super(urls, parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if (loaded == null) {
+                    try {
+                        loaded = findClass(name);
+                    } catch (ClassNotFoundException e) {
+                        return super.loadClass(name, resolve);
+                    }
+                }
+                if (resolve) {
+                    resolveClass(loaded);
+                }
+                return loaded;
+            }
+        }
+    }
+
+    /**
+     * Parent of the dependency loader: the JDK, plus this JVM's JUnit Platform classes so the
+     * launcher and the project's engines agree on them. The rest of the runner's classpath,
+     * Jackson included, stays invisible to the project.
+     */
+    private static class SharedPlatformClassLoader extends ClassLoader {
+        SharedPlatformClassLoader() {
+            super(ClassLoader.getPlatformClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            for (String shared : SHARED_PACKAGES) {
+                if (name.startsWith(shared)) {
+                    return HotSwapTestRunnerMain.class.getClassLoader().loadClass(name);
+                }
+            }
+            return super.loadClass(name, resolve);
+        }
+    }
+}
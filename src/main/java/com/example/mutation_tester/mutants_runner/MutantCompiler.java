@@ -0,0 +1,136 @@
+package com.example.mutation_tester.mutants_runner;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Compiles a single mutated source file against the already compiled project. One file
+ * manager is kept open for the compiler's lifetime, so the project's classes and dependency
+ * jars are indexed once rather than for every mutant, and class files are collected in memory:
+ * a mutant that doesn't compile never touches the disk, let alone starts Maven.
+ */
+public class MutantCompiler implements Closeable {
+    private static final List<String> OPTIONS = List.of("-proc:none", "-g", "-nowarn", "-implicit:none");
+
+    private final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    private final StandardJavaFileManager fileManager;
+
+    /** Class files of one compiled mutant by binary class name, or the compiler errors. */
+    public record Result(Map<String, byte[]> classes, List<String> errors) {
+        public boolean viable() {
+            return errors.isEmpty();
+        }
+    }
+
+    public MutantCompiler(List<Path> classpath) throws IOException {
+        this.fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8);
+        this.fileManager.setLocationFromPaths(StandardLocation.CLASS_PATH, classpath);
+    }
+
+    /**
+     * Compiler for a project built by {@link ProjectBuild}: its main classes followed by the
+     * dependencies listed in {@code classpathFile}.
+     */
+    public static MutantCompiler forProject(Path classesDir, Path classpathFile) throws IOException {
+        List<Path> classpath = new ArrayList<>();
+        classpath.add(classesDir);
+        classpath.addAll(readClasspath(classpathFile));
+        return new MutantCompiler(classpath);
+    }
+
+    /** Reads a classpath file as written by {@code dependency:build-classpath}. */
+    public static List<Path> readClasspath(Path classpathFile) throws IOException {
+        String content = Files.readString(classpathFile).trim();
+        if (content.isEmpty()) {
+            return List.of();
+        }
+        return Stream.of(content.split(File.pathSeparator)).map(Paths::get).toList();
+    }
+
+    /** Compiles {@code source} in memory; nothing is written. */
+    public synchronized Result compile(Path source) {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        InMemoryOutput output = new InMemoryOutput(fileManager);
+        boolean compiled = compiler.getTask(null, output, diagnostics, OPTIONS, null,
+                fileManager.getJavaFileObjects(source)).call();
+        if (compiled) {
+            return new Result(output.classes, List.of());
+        }
+        List<String> errors = diagnostics.getDiagnostics().stream()
+                .filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+                .map(Object::toString)
+                .toList();
+        return new Result(Map.of(), errors.isEmpty() ? List.of("compilation failed") : errors);
+    }
+
+    /** Writes the class files of a viable mutant below {@code outputDir}, in package layout. */
+    public static void writeClasses(Result result, Path outputDir) throws IOException {
+        for (Map.Entry<String, byte[]> entry : result.classes().entrySet()) {
+            Path classFile = outputDir.resolve(entry.getKey().replace('.', File.separatorChar) + ".class");
+            Files.createDirectories(classFile.getParent());
+            Files.write(classFile, entry.getValue());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        fileManager.close();
+    }
+
+    /** Hands class output to memory instead of the class output directory. */
+    private static class InMemoryOutput extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        final Map<String, byte[]> classes = new LinkedHashMap<>();
+
+        InMemoryOutput(StandardJavaFileManager fileManager) {
+            super(fileManager);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className,
+                                                   JavaFileObject.Kind kind, FileObject sibling) throws IOException {
+            if (kind != JavaFileObject.Kind.CLASS) {
+                return super.getJavaFileForOutput(location, className, kind, sibling);
+            }
+            URI uri = URI.create("mem:///" + className.replace('.', '/') + kind.extension);
+            return new SimpleJavaFileObject(uri, kind) {
+                @Override
+                public OutputStream openOutputStream() {
+                    return new ByteArrayOutputStream() {
+                        @Override
+                        public void close() {
+                            classes.put(className, toByteArray());
+                        }
+                    };
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            // the wrapped file manager outlives this compilation
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package com.example.mutation_tester.mutants_runner;
+
+import com.example.config.MutationAnalysisConfig;
+import com.example.mutation_tester.mutations_applier.MutantSchemata;
+import com.example.mutation_tester.mutations_applier.MutantSwitch;
+import com.example.mutation_tester.mutations_applier.MutatedSource;
+import com.example.mutation_tester.mutations_applier.MutationApplier;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests one mutant per method, several at a time. Each mutant gets a lane, a
+ * {@link ProjectWorktree} of the project that is reset, mutated and tested on its own, so
+ * mutants never see each other's edits and the project checkout itself is left untouched.
+ * Tests run through Maven, or in a per-lane {@link HotSwapTestRunner} when
+ * {@code mutation-analysis.mutant-runner=HOT_SWAP}. Before Maven is started, the mutated file
+ * is compiled on its own by the lane's {@link MutantCompiler}; mutants that don't compile are
+ * reported as non-viable without running a build, and Maven tests the others against the
+ * classes compiled there instead of compiling the project again. With {@code mutation-analysis.mutant-schemata}
+ * a lane instead compiles all mutants once, as {@link MutantSchemata}, and each mutant is tested
+ * by switching it on.
+ * <p>
+ * Unless {@code mutation-analysis.full-failure-sets} is set, a mutant's tests stop at the first
+ * failing one. Only the hot-swap runner runs them in {@link TestHistory} order and records
+ * their outcomes; Surefire picks its own order and reports no per-test timings.
+ */
+@Service
+public class MutantScheduler {
+
+    /** Runs the tests of one mutated method in the checkout at {@code lanePath}. */
+    @FunctionalInterface
+    public interface MutantTestRunner {
+        /**
+         * Returns the failing tests keyed by method signature; empty when the mutant survived.
+         * {@code mavenProperties} are set as user properties. The tests are given in history
+         * order, but Surefire runs the classes of {@code -Dtest} in its own order.
+         */
+        Map<String, Set<String>> run(Map<String, Set<String>> testsToRunMap,
+                                     String lanePath,
+                                     Map<String, String> mavenProperties) throws Exception;
+    }
+
+    /** Class files of the mutant a Maven lane is testing, relative to the lane. */
+    static final String MUTANT_CLASSES_DIR = "target/mutant-classes";
+
+    private final MutationApplier mutationApplier;
+    private final MutationAnalysisConfig config;
+
+    public MutantScheduler(MutationApplier mutationApplier, MutationAnalysisConfig config) {
+        this.mutationApplier = mutationApplier;
+        this.config = config;
+    }
+
+    /**
+     * Mutates and tests every method of {@code testsToRunMap} and returns the failing tests of
+     * the detected mutants, keyed by method signature.
+     */
+    public Map<String, Set<String>> run(String projectPath,
+                                        MutationApplier.CustomMutations mutation,
+                                        Map<String, Set<String>> testsToRunMap,
+                                        TestHistory testHistory,
+                                        MutantTestRunner testRunner) throws IOException, InterruptedException {
+        Map<String, Set<String>> failedTests = new ConcurrentHashMap<>();
+        if (testsToRunMap.isEmpty()) {
+            return failedTests;
+        }
+
+        if (config.getMutantRunner() == MutationAnalysisConfig.MutantRunner.MAVEN) {
+            System.out.println("ℹ️ Tests run in Surefire's order and the test history isn't updated; "
+                    + "history ordering needs mutation-analysis.mutant-runner=HOT_SWAP");
+        }
+
+        Path project = Paths.get(projectPath).toAbsolutePath();
+        int laneCount = Math.min(config.resolvedMutantLanes(), testsToRunMap.size());
+        Path lanesDir = Files.createTempDirectory("mutant-lanes-");
+        List<ProjectWorktree> lanes = new ArrayList<>();
+        BlockingQueue<ProjectWorktree> freeLanes = new LinkedBlockingQueue<>();
+        Map<ProjectWorktree, HotSwapTestRunner> hotSwapRunners = new ConcurrentHashMap<>();
+        Map<ProjectWorktree, MutantCompiler> compilers = new ConcurrentHashMap<>();
+        AtomicInteger nonViable = new AtomicInteger();
+        Set<ProjectWorktree> schemaLanes = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(laneCount);
+
+        try {
+            System.out.println("Creating " + laneCount + " mutant lanes in " + lanesDir);
+            for (int i = 0; i < laneCount; i++) {
+                ProjectWorktree lane = ProjectWorktree.create(project, lanesDir.resolve("lane-" + i));
+                lanes.add(lane);
+                freeLanes.add(lane);
+            }
+
+            MutantSchemata schemata = config.isMutantSchemata()
+                    ? buildSchemata(lanes.get(0), mutation, testsToRunMap.keySet(), hotSwapRunners, schemaLanes)
+                    : null;
+
+            // schema mutants are queued first: lanes take methods in this order, so each lane leaves
+            // the schemata at most once instead of being rebuilt whenever the two kinds alternate
+            List<Map.Entry<String, Set<String>>> queued = new ArrayList<>(testsToRunMap.entrySet());
+            if (schemata != null) {
+                queued.sort(Comparator.comparing(entry -> schemata.mutantId(entry.getKey()).isEmpty()));
+            }
+
+            AtomicInteger started = new AtomicInteger();
+            int totalMethods = testsToRunMap.size();
+            for (Map.Entry<String, Set<String>> entry : queued) {
+                executor.execute(() -> {
+                    String methodSignature = entry.getKey();
+                    Set<String> relevantTests = new LinkedHashSet<>(testHistory.order(entry.getValue()));
+                    ProjectWorktree lane;
+                    try {
+                        lane = freeLanes.take();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    try {
+                        System.out.printf("%n[%d/%d] Processing method: %s (%s, %d relevant tests)%n",
+                                started.incrementAndGet(), totalMethods, methodSignature,
+                                lane.getPath().getFileName(), relevantTests.size());
+                        Optional<Integer> mutantId = schemata == null
+                                ? Optional.empty()
+                                : schemata.mutantId(methodSignature);
+                        if (mutantId.isPresent()) {
+                            testSchemaMutant(lane, schemata, schemaLanes, hotSwapRunners, mutantId.get(),
+                                    methodSignature, relevantTests, testHistory, testRunner, failedTests);
+                        } else if (config.getMutantRunner() == MutationAnalysisConfig.MutantRunner.HOT_SWAP) {
+                            schemaLanes.remove(lane);
+                            testMutantHotSwap(lane, hotSwapRunners, mutation, methodSignature, relevantTests,
+                                    testHistory, failedTests);
+                        } else {
+                            schemaLanes.remove(lane);
+                            testMutant(lane, compilers, mutation, methodSignature, relevantTests,
+                                    testRunner, failedTests, nonViable);
+                        }
+                    } catch (Exception e) {
+                        System.err.println("  ❌ Error processing method " + methodSignature + ": " + e.getMessage());
+                        e.printStackTrace();
+                    } finally {
+                        freeLanes.add(lane);
+                    }
+                });
+            }
+
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            if (nonViable.get() > 0) {
+                System.out.println("⚠️ " + nonViable.get() + " non-viable mutants skipped without running Maven");
+            }
+        } finally {
+            executor.shutdownNow();
+            for (HotSwapTestRunner runner : hotSwapRunners.values()) {
+                runner.close();
+            }
+            for (MutantCompiler compiler : compilers.values()) {
+                compiler.close();
+            }
+            for (ProjectWorktree lane : lanes) {
+                try {
+                    lane.close();
+                } catch (IOException e) {
+                    System.err.println("Couldn't remove mutant lane " + lane.getPath() + ": " + e.getMessage());
+                }
+            }
+            ProjectWorktree.prune(project);
+            FileUtils.deleteQuietly(lanesDir.toFile());
+        }
+        return failedTests;
+    }
+
+    /**
+     * Tests the mutant through Maven. The lane is built once, on its first mutant, so that
+     * every later mutant can be compiled against it before Maven is started. The mutant's
+     * classes are written to {@link #MUTANT_CLASSES_DIR} and laid over the lane's classes for
+     * the test run, which skips the main compile.
+     */
+    private void testMutant(ProjectWorktree lane,
+                            Map<ProjectWorktree, MutantCompiler> compilers,
+                            MutationApplier.CustomMutations mutation,
+                            String methodSignature,
+                            Set<String> relevantTests,
+                            MutantTestRunner testRunner,
+                            Map<String, Set<String>> failedTests,
+                            AtomicInteger nonViable) throws Exception {
+        String lanePath = lane.getPath().toString();
+        lane.reset();
+
+        MutantCompiler compiler = compilers.get(lane);
+        if (compiler == null) {
+            ProjectBuild.build(lane.getPath());
+            compiler = MutantCompiler.forProject(
+                    ProjectBuild.classesDir(lane.getPath()), ProjectBuild.classpathFile(lane.getPath()));
+            compilers.put(lane, compiler);
+        }
+
+        Optional<MutatedSource> mutant = mutationApplier.mutateSpecificMethod(mutation, lanePath, methodSignature);
+        if (mutant.isEmpty()) {
+            System.out.println("  ⚠️ No mutation could be applied to " + methodSignature + ", skipping...");
+            return;
+        }
+        Files.writeString(mutant.get().file(), mutant.get().source());
+
+        MutantCompiler.Result compiled = compiler.compile(mutant.get().file());
+        if (!compiled.viable()) {
+            nonViable.incrementAndGet();
+            System.out.println("  ⚠️ Mutant of " + methodSignature + " doesn't compile, skipping: "
+                    + compiled.errors().get(0));
+            return;
+        }
+
+        Path mutantClasses = lane.getPath().resolve(MUTANT_CLASSES_DIR);
+        FileUtils.deleteQuietly(mutantClasses.toFile());
+        MutantCompiler.writeClasses(compiled, mutantClasses);
+
+        Map<String, Set<String>> failedForMethod;
+        try (ClassOverlay ignored = ClassOverlay.apply(mutantClasses, ProjectBuild.classesDir(lane.getPath()))) {
+            failedForMethod = testRunner.run(Map.of(methodSignature, relevantTests), lanePath,
+                    mavenProperties(Map.of("maven.main.skip", "true")));
+        }
+        reportMaven(methodSignature, failedForMethod, failedTests);
+    }
+
+    /**
+     * Builds the schemata of {@code methods} and compiles them in {@code lane}, which is then
+     * ready to test them. Returns null, with the lane reset, if there are no schemata or they
+     * don't compile.
+     */
+    private MutantSchemata buildSchemata(ProjectWorktree lane,
+                                         MutationApplier.CustomMutations mutation,
+                                         Set<String> methods,
+                                         Map<ProjectWorktree, HotSwapTestRunner> runners,
+                                         Set<ProjectWorktree> schemaLanes) throws IOException {
+        MutantSchemata schemata = mutationApplier.buildSchemata(mutation, lane.getPath().toString(), methods);
+        if (schemata.isEmpty()) {
+            return null;
+        }
+        try {
+            prepareSchemaLane(lane, schemata, runners, schemaLanes);
+        } catch (IllegalStateException | MavenInvocationException e) {
+            System.out.println("⚠️ Mutant schemata don't compile, compiling mutants one at a time: " + e.getMessage());
+            lane.reset();
+            return null;
+        }
+        System.out.println("✅ Compiled " + schemata.size() + " mutants at once as mutant schemata");
+        return schemata;
+    }
+
+    /** Writes the schemata into the lane and builds it, starting its hot-swap runner if one is used. */
+    private void prepareSchemaLane(ProjectWorktree lane,
+                                   MutantSchemata schemata,
+                                   Map<ProjectWorktree, HotSwapTestRunner> runners,
+                                   Set<ProjectWorktree> schemaLanes) throws IOException, MavenInvocationException {
+        lane.reset();
+        schemata.writeTo(lane.getPath());
+        if (config.getMutantRunner() == MutationAnalysisConfig.MutantRunner.HOT_SWAP) {
+            HotSwapTestRunner previous = runners.remove(lane);
+            if (previous != null) {
+                previous.close();
+            }
+            runners.put(lane, HotSwapTestRunner.start(lane.getPath(), config.getHotSwapTestTimeoutMs(), killFast()));
+        } else {
+            ProjectBuild.build(lane.getPath());
+        }
+        schemaLanes.add(lane);
+    }
+
+    /** Tests a mutant of the schemata by switching it on; nothing is mutated or compiled. */
+    private void testSchemaMutant(ProjectWorktree lane,
+                                  MutantSchemata schemata,
+                                  Set<ProjectWorktree> schemaLanes,
+                                  Map<ProjectWorktree, HotSwapTestRunner> runners,
+                                  int mutantId,
+                                  String methodSignature,
+                                  Set<String> relevantTests,
+                                  TestHistory testHistory,
+                                  MutantTestRunner testRunner,
+                                  Map<String, Set<String>> failedTests) throws Exception {
+        if (!schemaLanes.contains(lane)) {
+            prepareSchemaLane(lane, schemata, runners, schemaLanes);
+        }
+
+        if (config.getMutantRunner() == MutationAnalysisConfig.MutantRunner.HOT_SWAP) {
+            HotSwapTestRunner runner = runners.get(lane);
+            if (!runner.isAlive()) {
+                runner.close();
+                runner = HotSwapTestRunner.launch(lane.getPath(), config.getHotSwapTestTimeoutMs(), killFast());
+                runners.put(lane, runner);
+            }
+            MutantTestResult result = runner.testSchema(mutantId, relevantTests);
+            testHistory.record(result);
+            report(methodSignature, relevantTests, result, failedTests);
+        } else {
+            Map<String, Set<String>> failedForMethod = testRunner.run(Map.of(methodSignature, relevantTests),
+                    lane.getPath().toString(), mavenProperties(Map.of(MutantSwitch.PROPERTY, String.valueOf(mutantId))));
+            reportMaven(methodSignature, failedForMethod, failedTests);
+        }
+    }
+
+    private static void reportMaven(String methodSignature,
+                                    Map<String, Set<String>> failedForMethod,
+                                    Map<String, Set<String>> failedTests) {
+        if (!failedForMethod.isEmpty()) {
+            failedTests.putAll(failedForMethod);
+            System.out.println("  ✅ Mutation in " + methodSignature + " detected! "
+                    + failedForMethod.get(methodSignature).size() + " tests failed.");
+        } else {
+            System.out.println("  ❌ Mutation in " + methodSignature + " not detected - all tests passed.");
+        }
+    }
+
+    /**
+     * Tests the mutant in the lane's hot-swap runner JVM, which is started on the lane's first
+     * mutant, before anything is mutated, and restarted if a timeout killed it.
+     */
+    private void testMutantHotSwap(ProjectWorktree lane,
+                                   Map<ProjectWorktree, HotSwapTestRunner> runners,
+                                   MutationApplier.CustomMutations mutation,
+                                   String methodSignature,
+                                   Set<String> relevantTests,
+                                   TestHistory testHistory,
+                                   Map<String, Set<String>> failedTests) throws Exception {
+        lane.reset();
+
+        HotSwapTestRunner runner = runners.get(lane);
+        if (runner == null || !runner.isAlive()) {
+            if (runner != null) {
+                runner.close();
+            }
+            runner = HotSwapTestRunner.start(lane.getPath(), config.getHotSwapTestTimeoutMs(), killFast());
+            runners.put(lane, runner);
+        }
+
+        Optional<MutatedSource> mutant = mutationApplier.mutateSpecificMethod(
+                mutation, lane.getPath().toString(), methodSignature);
+        if (mutant.isEmpty()) {
+            System.out.println("  ⚠️ No mutation could be applied to " + methodSignature + ", skipping...");
+            return;
+        }
+        Files.writeString(mutant.get().file(), mutant.get().source());
+
+        MutantTestResult result = runner.test(mutant.get().file(), relevantTests);
+        testHistory.record(result);
+        report(methodSignature, relevantTests, result, failedTests);
+    }
+
+    private boolean killFast() {
+        return !config.isFullFailureSets();
+    }
+
+    /** {@code properties} for a Maven test run, plus stopping at the first failure when killing fast. */
+    private Map<String, String> mavenProperties(Map<String, String> properties) {
+        if (!killFast()) {
+            return properties;
+        }
+        Map<String, String> withKillFast = new HashMap<>(properties);
+        withKillFast.put("surefire.skipAfterFailureCount", "1");
+        return withKillFast;
+    }
+
+    private static void report(String methodSignature,
+                               Set<String> relevantTests,
+                               MutantTestResult result,
+                               Map<String, Set<String>> failedTests) {
+        switch (result.status()) {
+            case KILLED -> {
+                failedTests.put(methodSignature, result.failedTests());
+                System.out.println("  ✅ Mutation in " + methodSignature + " detected! "
+                        + result.failedTests().size() + " of " + result.testsRun() + " tests failed.");
+            }
+            case TIMED_OUT -> {
+                failedTests.put(methodSignature, relevantTests);
+                System.out.println("  ✅ Mutation in " + methodSignature + " detected! Tests timed out.");
+            }
+            case SURVIVED -> System.out.println("  ❌ Mutation in " + methodSignature + " not detected - all "
+                    + result.testsRun() + " tests passed.");
+            case NON_VIABLE -> System.out.println("  ⚠️ Mutant of " + methodSignature + " doesn't compile, skipping: "
+                    + result.message());
+            case ERROR -> System.err.println("  ❌ Hot-swap runner failed on " + methodSignature + ": " + result.message());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.mutation_tester.mutants_runner;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Outcome of running the tests covering one mutant.
+ *
+ * @param testsRun    tests started, including the failing ones
+ * @param failedTests failing tests as {@code Class#method}, or a class name when the class
+ *                    failed as a whole; empty unless the mutant was killed
+ * @param testRuns    each requested test that ran, as requested; in a kill-fast run the
+ *                    tests after the first failing one are missing
+ * @param message     compiler or runner output explaining a non-viable or errored mutant
+ */
+public record MutantTestResult(Status status,
+                               long testsRun,
+                               Set<String> failedTests,
+                               Map<String, TestRun> testRuns,
+                               String message) {
+
+    /** How long one requested test took and whether it failed. */
+    public record TestRun(long nanos, boolean failed) {}
+
+    public enum Status {
+        /** At least one test failed. */
+        KILLED,
+        /** Every test passed. */
+        SURVIVED,
+        /** The tests didn't finish in time, usually an infinite loop; counts as killed. */
+        TIMED_OUT,
+        /** The mutated source doesn't compile, so there was nothing to test. */
+        NON_VIABLE,
+        /** The runner itself failed; says nothing about the mutant. */
+        ERROR
+    }
+
+    public static MutantTestResult killed(long testsRun, Set<String> failedTests, Map<String, TestRun> testRuns) {
+        return new MutantTestResult(Status.KILLED, testsRun, Set.copyOf(failedTests), Map.copyOf(testRuns), null);
+    }
+
+    public static MutantTestResult survived(long testsRun, Map<String, TestRun> testRuns) {
+        return new MutantTestResult(Status.SURVIVED, testsRun, Set.of(), Map.copyOf(testRuns), null);
+    }
+
+    public static MutantTestResult timedOut() {
+        return new MutantTestResult(Status.TIMED_OUT, 0, Set.of(), Map.of(), null);
+    }
+
+    public static MutantTestResult nonViable(String compilerOutput) {
+        return new MutantTestResult(Status.NON_VIABLE, 0, Set.of(), Map.of(), compilerOutput);
+    }
+
+    public static MutantTestResult error(String message) {
+        return new MutantTestResult(Status.ERROR, 0, Set.of(), Map.of(), message);
+    }
+
+    /** True when the tests noticed the mutant. */
+    public boolean detected() {
+        return status == Status.KILLED || status == Status.TIMED_OUT;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.mutation_tester.mutants_runner;
+
+import org.apache.maven.shared.invoker.DefaultInvocationRequest;
+import org.apache.maven.shared.invoker.DefaultInvoker;
+import org.apache.maven.shared.invoker.InvocationRequest;
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.invoker.Invoker;
+import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.apache.maven.shared.invoker.PrintStreamHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * The one Maven build a lane needs before mutants can be compiled on their own: main and test
+ * classes, plus the test-scope dependency classpath written to {@link #CLASSPATH_FILE}.
+ */
+public class ProjectBuild {
+    /** Written by {@code dependency:build-classpath}, relative to the project. */
+    public static final String CLASSPATH_FILE = "target/mutant-classpath.txt";
+
+    public static void build(Path projectPath) throws MavenInvocationException {
+        Invoker invoker = new DefaultInvoker();
+        invoker.setWorkingDirectory(projectPath.toFile());
+        File mavenHome = new File(System.getenv("MAVEN_HOME"));
+        if (!mavenHome.isDirectory()) {
+            throw new IllegalStateException("MAVEN_HOME must point to a valid directory");
+        }
+        invoker.setMavenHome(mavenHome);
+
+        InvocationRequest req = new DefaultInvocationRequest();
+        req.setPomFile(projectPath.resolve("pom.xml").toFile());
+        req.setGoals(List.of("test-compile", "dependency:build-classpath"));
+        req.setInputStream(InputStream.nullInputStream());
+
+        Properties props = new Properties();
+        props.setProperty("mdep.outputFile", CLASSPATH_FILE);
+        props.setProperty("mdep.includeScope", "test");
+        req.setProperties(props);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PrintStreamHandler handler = new PrintStreamHandler(new PrintStream(baos), false);
+        invoker.setOutputHandler(handler);
+        invoker.setErrorHandler(handler);
+
+        InvocationResult result = invoker.execute(req);
+        if (result.getExitCode() != 0) {
+            System.err.println(baos);
+            throw new IllegalStateException("Maven build of " + projectPath + " failed with exit code " + result.getExitCode());
+        }
+    }
+
+    public static Path classesDir(Path projectPath) {
+        return projectPath.resolve("target/classes");
+    }
+
+    public static Path testClassesDir(Path projectPath) {
+        return projectPath.resolve("target/test-classes");
+    }
+
+    public static Path classpathFile(Path projectPath) {
+        return projectPath.resolve(CLASSPATH_FILE);
+    }
+}
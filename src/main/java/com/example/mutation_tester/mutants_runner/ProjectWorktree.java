@@ -0,0 +1,77 @@
+package com.example.mutation_tester.mutants_runner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@code git worktree} of the project under test, detached at the project's HEAD. Mutants
+ * are applied to and tested in the worktree, so several of them can be tested at once without
+ * touching the project checkout. Ignored files such as {@code target/} survive {@link #reset()},
+ * which keeps Maven's incremental compilation working from one mutant to the next.
+ */
+public class ProjectWorktree implements Closeable {
+    private final Path projectPath;
+    private final Path path;
+
+    private ProjectWorktree(Path projectPath, Path path) {
+        this.projectPath = projectPath;
+        this.path = path;
+    }
+
+    public static ProjectWorktree create(Path projectPath, Path path) throws IOException {
+        git(projectPath, "worktree", "add", "--force", "--detach", path.toString(), "HEAD");
+        return new ProjectWorktree(projectPath, path);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /** Discards the previous mutant: reverts tracked files and removes untracked ones. */
+    public void reset() throws IOException {
+        git(path, "checkout", ".");
+        git(path, "clean", "-fd");
+    }
+
+    @Override
+    public void close() throws IOException {
+        git(projectPath, "worktree", "remove", "--force", path.toString());
+    }
+
+    /** Drops the bookkeeping of worktrees whose directory is gone, e.g. after a crash. */
+    public static void prune(Path projectPath) throws IOException {
+        git(projectPath, "worktree", "prune");
+    }
+
+    private static String git(Path directory, String... args) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(List.of(args));
+
+        Process process = new ProcessBuilder(command)
+                .directory(directory.toFile())
+                .redirectErrorStream(true)
+                .start();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (InputStream in = process.getInputStream()) {
+            in.transferTo(output);
+        }
+        try {
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                throw new IOException(String.join(" ", command) + " failed with exit code "
+                        + exitCode + ": " + output.toString().trim());
+            }
+        } catch (InterruptedException e) {
+            process.destroy();
+            Thread.currentThread().interrupt();
+            throw new IOException(String.join(" ", command) + " interrupted", e);
+        }
+        return output.toString();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.mutation_tester.mutants_runner;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * How often each test killed a mutant and how long it took, kept across runs, so the tests
+ * of a mutant can be tried in order of expected kills per second and a kill-fast run stops
+ * early. A test without a history is ranked by how focused it is: one that covers few methods
+ * in the method-to-test map is taken to be more likely to notice a mutant in one of them.
+ */
+public class TestHistory {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** Runs, kills and total run time of one test, as keyed in the method-to-test map. */
+    public record Stats(long runs, long kills, long nanos) {
+        static Stats of(MutantTestResult.TestRun run) {
+            return new Stats(1, run.failed() ? 1 : 0, run.nanos());
+        }
+
+        Stats plus(Stats other) {
+            return new Stats(runs + other.runs, kills + other.kills, nanos + other.nanos);
+        }
+
+        double meanNanos() {
+            return (double) nanos / runs;
+        }
+    }
+
+    private final Path file;
+    private final Map<String, Stats> stats;
+    /** Number of methods each test covers. */
+    private final Map<String, Integer> coverage = new HashMap<>();
+
+    private TestHistory(Path file, Map<String, Stats> stats, Map<String, Set<String>> methodTestMap) {
+        this.file = file;
+        this.stats = new ConcurrentHashMap<>(stats);
+        methodTestMap.values().forEach(tests -> tests.forEach(test -> coverage.merge(test, 1, Integer::sum)));
+    }
+
+    /** The history saved in {@code file}, or an empty one if there is none yet. */
+    public static TestHistory load(Path file, Map<String, Set<String>> methodTestMap) throws IOException {
+        Map<String, Stats> stats = Files.exists(file)
+                ? MAPPER.readValue(file.toFile(), new TypeReference<Map<String, Stats>>() {})
+                : Map.of();
+        return new TestHistory(file, stats, methodTestMap);
+    }
+
+    public void save() throws IOException {
+        MAPPER.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), new TreeMap<>(stats));
+    }
+
+    /** Records every test that ran in {@code result}. */
+    public void record(MutantTestResult result) {
+        result.testRuns().forEach((test, run) -> stats.merge(test, Stats.of(run), Stats::plus));
+    }
+
+    /** {@code tests} with the most expected kills per second first. */
+    public List<String> order(Collection<String> tests) {
+        // tests that never ran are assumed to take the median time
+        double[] means = stats.values().stream().mapToDouble(Stats::meanNanos).sorted().toArray();
+        double defaultNanos = means.length > 0 ? means[means.length / 2] : 1;
+        Map<String, Double> scores = new HashMap<>();
+        for (String test : tests) {
+            Stats s = stats.get(test);
+            double prior = 1.0 / coverage.getOrDefault(test, 1);
+            double killProbability = s == null ? prior : (s.kills() + prior) / (s.runs() + 1);
+            double nanos = s == null ? defaultNanos : Math.max(1, s.meanNanos());
+            scores.put(test, killProbability / nanos);
+        }
+        return tests.stream()
+                .distinct()
+                .sorted(Comparator.comparing((String test) -> scores.get(test)).reversed()
+                        .thenComparing(Comparator.naturalOrder()))
+                .toList();
+    }
+}
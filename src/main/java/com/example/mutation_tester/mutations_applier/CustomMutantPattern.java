@@ -2,6 +2,7 @@ package com.example.mutation_tester.mutations_applier;
 
 import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
 
 import java.util.List;
 
@@ -49,6 +50,15 @@ public interface CustomMutantPattern {
      */
     MutationResult applyMutation(CompilationUnit cu);
 
+    /**
+     * Where {@link #applyMutation} would mutate {@code cu}, in document order, without changing
+     * it. Used to build {@link MutantSchemata}; patterns that don't override this have no sites
+     * and their mutants are compiled one at a time.
+     */
+    default List<MutationSite> findSites(CompilationUnit cu) {
+        return List.of();
+    }
+
     /**
      * Apply mutation only to a specific method signature.
      * Default implementation falls back to regular mutation if the target method is affected.
@@ -81,14 +91,31 @@ public interface CustomMutantPattern {
 
     /**
      * Apply mutation to a specific method within the compilation unit.
-     * This is meant to be overridden by implementations that support targeted mutations.
-     * Default implementation falls back to applying all mutations and filtering the results.
+     * Patterns with {@link #findSites} mutate exactly the sites inside the target method, in place,
+     * which is the mutant {@link MutantSchemata} switches on for that method. Patterns without
+     * sites fall back to applying all mutations and filtering the results.
      *
      * @param cu the compilation unit to mutate
      * @param targetMethodSignature the specific method to mutate
      * @return MutationResult with only the targeted method mutated, or null if not applicable
      */
     default MutationResult applyMutationToSpecificMethod(CompilationUnit cu, String targetMethodSignature) {
+        List<MutationSite> sites = findSites(cu);
+        if (!sites.isEmpty()) {
+            List<MutationSite> targeted = sites.stream()
+                    .filter(site -> site.method().equals(targetMethodSignature))
+                    .toList();
+            if (targeted.isEmpty()) {
+                return null;
+            }
+            // back to front, so a site nested in another one is mutated before its parent is copied
+            for (int i = targeted.size() - 1; i >= 0; i--) {
+                Node node = targeted.get(i).node();
+                node.replace(targeted.get(i).mutation().apply(node.clone()));
+            }
+            return new MutationResult(cu, List.of(targetMethodSignature));
+        }
+
         // Default implementation: apply all mutations and check if target method is affected
         MutationResult fullResult = applyMutation(cu.clone());
 
@@ -0,0 +1,114 @@
+package com.example.mutation_tester.mutations_applier;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.ConditionalExpr;
+import com.github.javaparser.ast.expr.EnclosedExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.IntegerLiteralExpr;
+import com.github.javaparser.ast.expr.LambdaExpr;
+import com.github.javaparser.ast.stmt.BlockStmt;
+import com.github.javaparser.ast.stmt.ExpressionStmt;
+import com.github.javaparser.ast.stmt.IfStmt;
+import com.github.javaparser.ast.stmt.Statement;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Every mutant of a project in one set of sources, so they all compile once. Each mutation
+ * site is guarded by the {@link MutantSwitch}: an expression becomes
+ * {@code (MutantSwitch.active == id ? mutated : original)}, and a statement, or a call used
+ * as one, becomes the equivalent if/else. All sites of a method share the method's id, so
+ * switching it on gives the same code as {@link MutationApplier#mutateSpecificMethod}, which
+ * mutates the same sites of that method and nothing else.
+ */
+public class MutantSchemata {
+    /** Rewritten sources by path relative to the project root. */
+    private final Map<Path, String> sources;
+    private final Map<String, Integer> mutantIds;
+
+    MutantSchemata(Map<Path, String> sources, Map<String, Integer> mutantIds) {
+        this.sources = Collections.unmodifiableMap(sources);
+        this.mutantIds = Collections.unmodifiableMap(mutantIds);
+    }
+
+    /** The id that switches on the mutant of {@code method}, if the method has one. */
+    public Optional<Integer> mutantId(String method) {
+        return Optional.ofNullable(mutantIds.get(method));
+    }
+
+    public int size() {
+        return mutantIds.size();
+    }
+
+    public boolean isEmpty() {
+        return mutantIds.isEmpty();
+    }
+
+    /** Writes the rewritten sources and the switch class into the project at {@code projectRoot}. */
+    public void writeTo(Path projectRoot) throws IOException {
+        for (Map.Entry<Path, String> source : sources.entrySet()) {
+            Files.writeString(projectRoot.resolve(source.getKey()), source.getValue());
+        }
+        MutantSwitch.writeTo(projectRoot);
+    }
+
+    /**
+     * Guards the sites whose method has an id, in the compilation unit they belong to. Sites are expected in document
+     * order and are rewritten back to front, so a site nested in another one is guarded first
+     * and ends up in both branches of the outer guard.
+     */
+    static void rewrite(List<MutationSite> sites, Map<String, Integer> mutantIds) {
+        for (int i = sites.size() - 1; i >= 0; i--) {
+            MutationSite site = sites.get(i);
+            Integer id = mutantIds.get(site.method());
+            if (id != null) {
+                guard(site, id);
+            }
+        }
+    }
+
+    private static void guard(MutationSite site, int id) {
+        Expression active = new BinaryExpr(
+                StaticJavaParser.parseExpression(MutantSwitch.CLASS_NAME + ".active"),
+                new IntegerLiteralExpr(String.valueOf(id)),
+                BinaryExpr.Operator.EQUALS);
+        Node node = site.node();
+
+        if (node instanceof Expression expression) {
+            Optional<ExpressionStmt> statement = usedAsStatement(expression);
+            if (statement.isEmpty()) {
+                Expression mutated = (Expression) site.mutation().apply(expression.clone());
+                expression.replace(new EnclosedExpr(new ConditionalExpr(active, mutated, expression.clone())));
+                return;
+            }
+            // a void call can't be a conditional operand, so guard the statement instead
+            Statement mutated = new ExpressionStmt((Expression) site.mutation().apply(expression.clone()));
+            replaceStatement(statement.get(), active, mutated);
+            return;
+        }
+
+        Statement statement = (Statement) node;
+        replaceStatement(statement, active, (Statement) site.mutation().apply(statement.clone()));
+    }
+
+    private static Optional<ExpressionStmt> usedAsStatement(Expression expression) {
+        return expression.getParentNode()
+                .filter(ExpressionStmt.class::isInstance)
+                .map(ExpressionStmt.class::cast)
+                .filter(statement -> statement.getParentNode().filter(LambdaExpr.class::isInstance).isEmpty());
+    }
+
+    private static void replaceStatement(Statement original, Expression active, Statement mutated) {
+        IfStmt guarded = new IfStmt(active, mutated, original.clone());
+        original.replace(new BlockStmt(new NodeList<>(guarded)));
+    }
+}
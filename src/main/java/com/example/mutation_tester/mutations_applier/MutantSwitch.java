@@ -0,0 +1,36 @@
+package com.example.mutation_tester.mutations_applier;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The class mutant schemata test against, written into the project under test. Which mutant
+ * is active is read once per class loader from the {@link #PROPERTY} system property, so a
+ * test JVM or a fresh class loader picks one mutant and the JIT can fold the other branches
+ * away; 0 leaves every site unmutated.
+ */
+public class MutantSwitch {
+    public static final String CLASS_NAME = "mutation_analysis.MutantSwitch";
+    public static final String PROPERTY = "mutation_analysis.active_mutant";
+
+    private static final String SOURCE_FILE = "src/main/java/mutation_analysis/MutantSwitch.java";
+    private static final String SOURCE = """
+            package mutation_analysis;
+
+            /** Generated by mutation-analysis; selects the mutant the schemata run. */
+            public final class MutantSwitch {
+                public static final int active = Integer.getInteger("%s", 0);
+
+                private MutantSwitch() {
+                }
+            }
+            """.formatted(PROPERTY);
+
+    /** Writes the switch class into the Maven project at {@code projectRoot}. */
+    public static void writeTo(Path projectRoot) throws IOException {
+        Path file = projectRoot.resolve(SOURCE_FILE);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, SOURCE);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.mutation_tester.mutations_applier;
+
+import java.nio.file.Path;
+
+/**
+ * A source file of the project together with its mutated content, not yet written back.
+ */
+public record MutatedSource(Path file, String source) {
+}
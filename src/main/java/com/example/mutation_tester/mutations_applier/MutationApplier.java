@@ -6,6 +6,8 @@ import com.example.mutation_tester.mutations_applier.custom_patterns.TakeWhileDr
 import com.example.mutation_tester.mutations_applier.custom_patterns.SafeStreamMethodReplacement;
 import com.example.mutation_tester.mutations_applier.custom_patterns.OptionalMethodReplacement;
 import com.example.mutation_tester.mutations_applier.custom_patterns.AssertionMethodReplacement;
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
@@ -13,7 +15,6 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
@@ -125,6 +126,61 @@ public class MutationApplier {
         return new ArrayList<>(allMutableMethods);
     }
 
+    /**
+     * Builds the {@link MutantSchemata} of {@code methods}: every file with a mutation site in
+     * one of them, rewritten so that each method's mutant can be switched on at run time.
+     * Nothing is written to disk.
+     *
+     * @param mutation the type of mutation to apply
+     * @param rootPath the root directory to scan
+     * @param methods the method signatures to build mutants for
+     */
+    public MutantSchemata buildSchemata(CustomMutations mutation, String rootPath, Set<String> methods) {
+        Path rootDir = Paths.get(rootPath);
+        Map<Path, String> sources = new LinkedHashMap<>();
+        Map<String, Integer> mutantIds = new LinkedHashMap<>();
+        if (!Files.exists(rootDir) || !Files.isDirectory(rootDir)) {
+            System.err.println("Error: The path does not exist or is not a directory: " + rootPath);
+            return new MutantSchemata(sources, mutantIds);
+        }
+
+        CustomMutantPattern pattern = customMutantPatternHashMap.get(mutation);
+
+        try (var pathStream = Files.walk(rootDir)) {
+            pathStream
+                    .filter(p -> p.toString().endsWith(".java"))
+                    .filter(p -> !p.toString().contains("/test/") && !p.toString().contains("\\test\\"))
+                    .forEach(javaFile -> {
+                        try {
+                            String originalCode = Files.readString(javaFile);
+                            if (!pattern.checkIfCanMutate(originalCode)) {
+                                return;
+                            }
+                            CompilationUnit cu = StaticJavaParser.parse(originalCode);
+                            List<MutationSite> sites = pattern.findSites(cu).stream()
+                                    .filter(site -> methods.contains(site.method()))
+                                    .toList();
+                            if (sites.isEmpty()) {
+                                return;
+                            }
+                            for (MutationSite site : sites) {
+                                mutantIds.putIfAbsent(site.method(), mutantIds.size() + 1);
+                            }
+                            MutantSchemata.rewrite(sites, mutantIds);
+                            sources.put(rootDir.relativize(javaFile), cu.toString());
+                        } catch (IOException e) {
+                            System.err.println("Error processing file: " + javaFile);
+                            e.printStackTrace();
+                        }
+                    });
+        } catch (IOException e) {
+            System.err.println("Failed to walk directory: " + rootPath);
+            e.printStackTrace();
+        }
+
+        return new MutantSchemata(sources, mutantIds);
+    }
+
     /**
      * Applies mutation to a specific method only, leaving other methods unchanged.
      *
@@ -134,47 +190,66 @@ public class MutationApplier {
      * @return true if the mutation was successfully applied, false otherwise
      */
     public boolean applyMutationToSpecificMethod(CustomMutations mutation, String rootPath, String targetMethodSignature) {
+        Optional<MutatedSource> mutant = mutateSpecificMethod(mutation, rootPath, targetMethodSignature);
+        if (mutant.isEmpty()) {
+            return false;
+        }
+        try {
+            Files.writeString(mutant.get().file(), mutant.get().source());
+            System.out.println("Applied targeted mutation to: " + targetMethodSignature + " in " + mutant.get().file());
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error processing file: " + mutant.get().file());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Finds the source file declaring {@code targetMethodSignature} and mutates that method only,
+     * without writing anything to disk.
+     *
+     * @return the file and its mutated source, or empty if no mutation applies to the method
+     */
+    public Optional<MutatedSource> mutateSpecificMethod(CustomMutations mutation, String rootPath, String targetMethodSignature) {
         Path rootDir = Paths.get(rootPath);
         if (!Files.exists(rootDir) || !Files.isDirectory(rootDir)) {
             System.err.println("Error: The path does not exist or is not a directory: " + rootPath);
-            return false;
+            return Optional.empty();
         }
 
         CustomMutantPattern pattern = customMutantPatternHashMap.get(mutation);
-        AtomicBoolean mutationApplied = new AtomicBoolean(false);
 
         try (var pathStream = Files.walk(rootDir)) {
-            pathStream
+            return pathStream
                     .filter(p -> p.toString().endsWith(".java"))
                     .filter(p -> !p.toString().contains("/test/") && !p.toString().contains("\\test\\"))
-                    .forEach(javaFile -> {
+                    .map(javaFile -> {
                         try {
                             String originalCode = Files.readString(javaFile);
                             MutationResult result = pattern.mutate(originalCode);
-                            List<String> affected = result.getAffectedMethods();
 
                             // Check if this file contains the target method
-                            if (affected.contains(targetMethodSignature)) {
-                                // Apply mutation only to the specific method
-                                // We need to create a targeted mutation that only affects the specified method
-                                MutationResult targetedResult = pattern.mutateSpecificMethod(originalCode, targetMethodSignature);
-
-                                if (targetedResult != null && !targetedResult.getAffectedMethods().isEmpty()) {
-                                    Files.writeString(javaFile, targetedResult.getMutatedUnit().toString());
-                                    mutationApplied.set(true);
-                                    System.out.println("Applied targeted mutation to: " + targetMethodSignature + " in " + javaFile);
-                                }
+                            if (!result.getAffectedMethods().contains(targetMethodSignature)) {
+                                return null;
                             }
+                            MutationResult targetedResult = pattern.mutateSpecificMethod(originalCode, targetMethodSignature);
+                            if (targetedResult == null || targetedResult.getAffectedMethods().isEmpty()) {
+                                return null;
+                            }
+                            return new MutatedSource(javaFile, targetedResult.getMutatedUnit().toString());
                         } catch (IOException e) {
                             System.err.println("Error processing file: " + javaFile);
                             e.printStackTrace();
+                            return null;
                         }
-                    });
+                    })
+                    .filter(Objects::nonNull)
+                    .findFirst();
         } catch (IOException e) {
             System.err.println("Failed to walk directory: " + rootPath);
             e.printStackTrace();
+            return Optional.empty();
         }
-
-        return mutationApplied.get();
     }
 }
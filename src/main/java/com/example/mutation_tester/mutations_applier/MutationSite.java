@@ -0,0 +1,11 @@
+package com.example.mutation_tester.mutations_applier;
+
+import com.github.javaparser.ast.Node;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * One place a {@link CustomMutantPattern} mutates: the node, the method it belongs to, and how
+ * to turn a copy of the node into its mutant.
+ */
+public record MutationSite(Node node, String method, UnaryOperator<Node> mutation) {}
@@ -2,6 +2,7 @@ package com.example.mutation_tester.mutations_applier.custom_patterns;
 
 import com.example.mutation_tester.mutations_applier.MutationResult;
 import com.example.mutation_tester.mutations_applier.CustomMutantPattern;
+import com.example.mutation_tester.mutations_applier.MutationSite;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.stmt.BreakStmt;
 import com.github.javaparser.ast.stmt.ContinueStmt;
@@ -32,6 +33,18 @@ public class LoopBreakReplacement implements CustomMutantPattern {
         return new MutationResult(cu, affected);
     }
 
+    @Override
+    public List<MutationSite> findSites(CompilationUnit cu) {
+        List<MutationSite> sites = new ArrayList<>();
+
+        cu.findAll(ContinueStmt.class).forEach(continueStmt ->
+                continueStmt.findAncestor(MethodDeclaration.class)
+                        .ifPresent(md -> sites.add(new MutationSite(continueStmt, fullyQualifiedName(md),
+                                node -> new BreakStmt()))));
+
+        return sites;
+    }
+
     @Override
     public boolean checkIfCanMutate(String code) {
         return code.contains("continue");
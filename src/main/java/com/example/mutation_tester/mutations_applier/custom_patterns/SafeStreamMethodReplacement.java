@@ -2,6 +2,7 @@ package com.example.mutation_tester.mutations_applier.custom_patterns;
 
 import com.example.mutation_tester.mutations_applier.MutationResult;
 import com.example.mutation_tester.mutations_applier.CustomMutantPattern;
+import com.example.mutation_tester.mutations_applier.MutationSite;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.expr.MethodCallExpr;
 import com.github.javaparser.ast.body.MethodDeclaration;
@@ -58,6 +59,22 @@ public class SafeStreamMethodReplacement implements CustomMutantPattern {
         return new MutationResult(cu, affected);
     }
 
+    @Override
+    public List<MutationSite> findSites(CompilationUnit cu) {
+        List<MutationSite> sites = new ArrayList<>();
+
+        cu.findAll(MethodCallExpr.class).forEach(methodCall -> {
+            String replacement = MUTATION_MAP.get(methodCall.getNameAsString());
+            if (replacement != null && isLikelyStreamCall(methodCall)) {
+                methodCall.findAncestor(MethodDeclaration.class)
+                        .ifPresent(md -> sites.add(new MutationSite(methodCall, fullyQualifiedName(md),
+                                node -> ((MethodCallExpr) node).setName(replacement))));
+            }
+        });
+
+        return sites;
+    }
+
     @Override
     public boolean checkIfCanMutate(String code) {
         return MUTATION_MAP.keySet().stream()
@@ -1,6 +1,7 @@
 package com.example.pojo;
 
 import com.example.EditOperation;
+import com.example.TreeComparator;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
@@ -16,6 +17,10 @@ public class FileResult{
     String newCommit;
     Map<String, Integer> metrics;
     List<EditOperation> editOperations;
+    /** Why the file has no operations although it changed, e.g. a diff timeout; null otherwise. */
+    String skipReason;
+    /** Diffs made before the file ran out of budget, for a retry to resume; not written out. */
+    TreeComparator.PartialDiff partialDiff;
 
     @Override
     public String toString(){
@@ -0,0 +1,69 @@
+package com.example.pojo;
+
+import com.example.util.SourceFingerprint;
+import com.example.util.SourceText;
+import com.google.common.hash.HashCode;
+import spoon.reflect.CtModel;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A Spoon model built from one {@link SourceText}, together with its method index.
+ * Instances are shared between worker threads through the parsed-source cache, so they
+ * must be treated as read-only once built: anything handed to GumTree has to be cloned first.
+ */
+public class ParsedSource {
+    /** Rough heap cost of one Spoon element with its position, role and metadata objects. */
+    private static final long ESTIMATED_BYTES_PER_ELEMENT = 512;
+
+    private final SourceText source;
+    private final CtModel model;
+    private final Map<String, CtMethod<?>> methods;
+    private final Map<String, Optional<HashCode>> fingerprints = new ConcurrentHashMap<>();
+    private final int elementCount;
+
+    public ParsedSource(SourceText source, CtModel model, Map<String, CtMethod<?>> methods) {
+        this.source = source;
+        this.model = model;
+        this.methods = Collections.unmodifiableMap(methods);
+        this.elementCount = model.getElements(new TypeFilter<>(CtElement.class)).size();
+    }
+
+    public SourceText getSource() {
+        return source;
+    }
+
+    public CtModel getModel() {
+        return model;
+    }
+
+    public Map<String, CtMethod<?>> getMethods() {
+        return methods;
+    }
+
+    /**
+     * Token-stream fingerprint of the method indexed under {@code signature}, computed on first
+     * use. Returns {@code null} when the method is unknown or has no source position.
+     */
+    public HashCode fingerprint(String signature) {
+        return fingerprints.computeIfAbsent(signature, sig ->
+                Optional.ofNullable(methods.get(sig))
+                        .map(method -> SourceFingerprint.of(source, method))
+        ).orElse(null);
+    }
+
+    /**
+     * Cache weight: estimated bytes of the model, counted by its elements, plus the source text.
+     * Fingerprints are a hash per method and are left out.
+     */
+    public int weight() {
+        long bytes = elementCount * ESTIMATED_BYTES_PER_ELEMENT + 2L * source.getContent().length();
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.service;
+
+import com.example.config.MutationAnalysisConfig;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs work that can't be interrupted, such as a GumTree match, under a deadline. Tasks run on
+ * a fixed set of daemon threads, one per diff worker plus one for the slow lane; when the
+ * caller's deadline passes it gets control back and the task is left to finish. The future
+ * stays valid, so a later attempt with a larger budget can wait for the same run instead of
+ * starting it over.
+ * <p>
+ * A run abandoned at its deadline keeps its thread until it finishes, since GumTree doesn't
+ * check for interrupts: cancelling it only stops tasks that haven't started yet. Tasks queue
+ * behind such runs rather than adding threads, so abandoned matches cost at most the pool's
+ * threads of CPU and memory, and the queue wait counts against the waiting caller's deadline.
+ */
+@Service
+public class DeadlineExecutor {
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private final ExecutorService threads;
+
+    public DeadlineExecutor(MutationAnalysisConfig config) {
+        int size = config.resolvedWorkerThreads() + 1;
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(size, size, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), task -> {
+                    Thread thread = new Thread(task, "diff-deadline-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        this.threads = pool;
+    }
+
+    public <T> Future<T> start(Callable<T> task) {
+        return threads.submit(task);
+    }
+
+    /**
+     * Waits up to {@code timeoutMs} for {@code running} (0 = no limit). Returns empty when the
+     * deadline passed first; the task keeps running. A failure of the task is rethrown unchecked.
+     */
+    public static <T> Optional<T> await(Future<T> running, long timeoutMs) {
+        try {
+            return Optional.of(timeoutMs > 0 ? running.get(timeoutMs, TimeUnit.MILLISECONDS) : running.get());
+        } catch (TimeoutException e) {
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.service;
+
+import com.example.config.MutationAnalysisConfig;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Fork-join pool for diffing the methods of one large file in parallel, so a file with
+ * thousands of methods doesn't keep a single diff worker busy long after the others are done.
+ * Its threads are daemons and idle ones time out, so the pool costs nothing between large files.
+ */
+@Service
+public class MethodDiffPool {
+
+    private final ForkJoinPool pool;
+    private final int methodThreshold;
+
+    public MethodDiffPool(MutationAnalysisConfig config) {
+        this.pool = new ForkJoinPool(config.resolvedMethodDiffThreads());
+        this.methodThreshold = config.getParallelMethodThreshold();
+    }
+
+    /** True when a file with {@code methodCount} methods to diff should be split across the pool. */
+    public boolean shouldFork(int methodCount) {
+        return methodThreshold > 0 && methodCount >= methodThreshold;
+    }
+
+    /**
+     * Starts {@code task} on the pool. The caller waits on the future, with a deadline if it has
+     * one, so the task runs on a pool thread only and no thread is parked on its behalf.
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        return pool.submit(task);
+    }
+}
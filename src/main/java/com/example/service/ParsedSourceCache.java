@@ -0,0 +1,92 @@
+package com.example.service;
+
+import com.example.pojo.ParsedSource;
+import com.example.util.JavaParserNodeIndex;
+import com.example.util.SourceText;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.eclipse.jgit.lib.ObjectId;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * Shares parsed Spoon models between commit pairs. The blob that is the "new" side of one
+ * pair is usually the "old" side of the next one, so keying by blob SHA lets a linear history
+ * parse every file version once instead of twice. The JavaParser index of a file, only
+ * needed once a diff has operations to map, lives in its own cache with its own weight.
+ */
+@Service
+public class ParsedSourceCache {
+
+    /** Upper bound on the estimated heap size of all cached models, see {@link ParsedSource#weight()}. */
+    private static final long MAX_CACHED_MODEL_BYTES = 512L << 20;
+
+    /** Upper bound on the estimated heap size of all cached JavaParser indexes. */
+    private static final long MAX_CACHED_INDEX_BYTES = 128L << 20;
+
+    /** Rough heap cost of one JavaParser node with its range and token references. */
+    private static final long ESTIMATED_BYTES_PER_JP_NODE = 256;
+
+    private final Cache<ObjectId, ParsedSource> cache = CacheBuilder.newBuilder()
+            .maximumWeight(MAX_CACHED_MODEL_BYTES)
+            .weigher((ObjectId id, ParsedSource parsed) -> parsed.weight())
+            .recordStats()
+            .build();
+
+    private final Cache<ObjectId, JavaParserNodeIndex> javaParserIndexes = CacheBuilder.newBuilder()
+            .maximumWeight(MAX_CACHED_INDEX_BYTES)
+            .weigher((ObjectId id, JavaParserNodeIndex index) ->
+                    (int) Math.min(Integer.MAX_VALUE, index.size() * ESTIMATED_BYTES_PER_JP_NODE))
+            .build();
+
+    /**
+     * Returns the parsed form of {@code source}, building it with {@code parser} on a miss.
+     * Sources that do not come from a Git blob are parsed every time.
+     */
+    public ParsedSource get(SourceText source, Function<SourceText, ParsedSource> parser) {
+        ObjectId blobId = source.getBlobId();
+        if (blobId == null) {
+            return parser.apply(source);
+        }
+        try {
+            return cache.get(blobId, () -> parser.apply(source));
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to parse " + source.getName(), e.getCause());
+        }
+    }
+
+    /** Position index of the JavaParser nodes of {@code source}, parsed on a miss. */
+    public JavaParserNodeIndex javaParserIndex(SourceText source) {
+        ObjectId blobId = source.getBlobId();
+        if (blobId == null) {
+            return JavaParserNodeIndex.of(source);
+        }
+        try {
+            return javaParserIndexes.get(blobId, () -> JavaParserNodeIndex.of(source));
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to parse " + source.getName(), e.getCause());
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public String describeStats() {
+        CacheStats stats = cache.stats();
+        return String.format("Parsed-model cache: %d hits, %d misses (hit rate %.1f%%), %d evictions, %d entries",
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate() * 100.0,
+                stats.evictionCount(),
+                cache.size());
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+        javaParserIndexes.invalidateAll();
+    }
+}
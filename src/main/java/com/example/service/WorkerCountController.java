@@ -0,0 +1,131 @@
+package com.example.service;
+
+import com.example.config.MutationAnalysisConfig;
+import com.sun.management.OperatingSystemMXBean;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sizes the diff worker pool from observed load. The pool starts at the configured maximum;
+ * every interval the controller samples system CPU load and the GC pause time accumulated since
+ * the last sample. When pauses exceed the budget it drops a quarter of the workers, and when the
+ * CPU has headroom and work is queued it adds one back.
+ * The current level is available from {@link #getCurrentLevel()} and is logged on every change.
+ */
+@Service
+public class WorkerCountController {
+    private final MutationAnalysisConfig config;
+    private final OperatingSystemMXBean os =
+            (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> task;
+    private ThreadPoolExecutor pool;
+    private volatile int currentLevel;
+
+    private long lastGcMillis;
+    private long lastSampleNanos;
+
+    public WorkerCountController(MutationAnalysisConfig config) {
+        this.config = config;
+        this.currentLevel = config.resolvedWorkerThreads();
+    }
+
+    public int maxWorkers() {
+        return config.resolvedWorkerThreads();
+    }
+
+    public int getCurrentLevel() {
+        return currentLevel;
+    }
+
+    /** Starts adjusting {@code pool}, which should have been created with {@link #maxWorkers()} threads. */
+    public synchronized void attach(ThreadPoolExecutor pool) {
+        detach();
+        this.pool = pool;
+        this.currentLevel = pool.getCorePoolSize();
+        if (!config.isAdaptiveWorkers()) {
+            return;
+        }
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "worker-count-controller");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        lastGcMillis = totalGcPauseMillis();
+        lastSampleNanos = System.nanoTime();
+        task = scheduler.scheduleWithFixedDelay(this::adjust,
+                config.getAdaptIntervalMs(), config.getAdaptIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void detach() {
+        if (task != null) {
+            task.cancel(false);
+            task = null;
+        }
+        pool = null;
+    }
+
+    private synchronized void adjust() {
+        if (pool == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        long gcMillis = totalGcPauseMillis();
+        double seconds = Math.max(1e-3, (now - lastSampleNanos) / 1e9);
+        double gcPerSecond = (gcMillis - lastGcMillis) / seconds;
+        lastGcMillis = gcMillis;
+        lastSampleNanos = now;
+
+        double cpuLoad = os.getCpuLoad();
+        int level = currentLevel;
+        int target = level;
+        if (gcPerSecond > config.getMaxGcPauseMsPerSecond()) {
+            target = Math.max(config.getMinWorkerThreads(), level - Math.max(1, level / 4));
+        } else if (cpuLoad >= 0 && cpuLoad < config.getTargetCpuLoad() && !pool.getQueue().isEmpty()) {
+            target = Math.min(maxWorkers(), level + 1);
+        }
+
+        if (target != level) {
+            resize(target);
+            System.out.printf("Diff workers: %d -> %d (cpu %.0f%%, gc %.0f ms/s)%n",
+                    level, target, cpuLoad * 100, gcPerSecond);
+        }
+    }
+
+    private void resize(int target) {
+        // core may never exceed max, so order the two updates by direction
+        if (target > pool.getMaximumPoolSize()) {
+            pool.setMaximumPoolSize(target);
+            pool.setCorePoolSize(target);
+        } else {
+            pool.setCorePoolSize(target);
+            pool.setMaximumPoolSize(target);
+        }
+        currentLevel = target;
+    }
+
+    /** Stop-the-world collection time; G1's concurrent cycle bean is excluded. */
+    private static long totalGcPauseMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc.getName().contains("Concurrent")) {
+                continue;
+            }
+            long time = gc.getCollectionTime();
+            if (time > 0) {
+                total += time;
+            }
+        }
+        return total;
+    }
+}
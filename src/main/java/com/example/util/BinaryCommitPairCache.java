@@ -0,0 +1,265 @@
+package com.example.util;
+
+import com.example.CommitPairWithFiles;
+import com.example.FileHunks;
+import com.example.dto.CommitPairDTO;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Compact, column-oriented on-disk form of the commit-pair cache.
+ *
+ * <pre>
+ * int    magic "CPC1"
+ * int    pairCount
+ * int    pathCount
+ *        path table: pathCount x (varint length, UTF-8 bytes)
+ *        old ids:    pairCount x 20 raw bytes
+ *        new ids:    pairCount x 20 raw bytes
+ *        offsets:    (pairCount + 1) x int, start of each pair's entry in the file section
+ *        files:      per pair: varint fileCount, then per file: varint path index,
+ *                    old ranges, new ranges
+ * </pre>
+ * A range list is {@code varint (count + 1)} followed by {@code count x (varint begin, varint length)};
+ * a leading 0 means the file has no recorded hunks.
+ *
+ * <p>Only the path table is decoded when the file is opened. Pairs are decoded and their commits
+ * parsed batch by batch in {@link #resolve}, so the heap never holds every RevCommit at once.
+ */
+public class BinaryCommitPairCache {
+    private static final int MAGIC = 0x43504331; // "CPC1"
+    private static final int ID_LENGTH = 20;
+
+    private final ByteBuffer buffer;
+    private final int pairCount;
+    private final String[] paths;
+    private final int oldIdsStart;
+    private final int newIdsStart;
+    private final int offsetsStart;
+    private final int filesStart;
+
+    private BinaryCommitPairCache(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        ByteBuffer in = buffer.duplicate();
+        if (in.getInt() != MAGIC) {
+            throw new IOException("Not a binary commit-pair cache");
+        }
+        this.pairCount = in.getInt();
+        this.paths = new String[in.getInt()];
+        for (int i = 0; i < paths.length; i++) {
+            byte[] bytes = new byte[readVarint(in)];
+            in.get(bytes);
+            paths[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        this.oldIdsStart = in.position();
+        this.newIdsStart = oldIdsStart + pairCount * ID_LENGTH;
+        this.offsetsStart = newIdsStart + pairCount * ID_LENGTH;
+        this.filesStart = offsetsStart + (pairCount + 1) * Integer.BYTES;
+    }
+
+    /** Memory-maps the cache file; nothing but the path table is read up front. */
+    public static BinaryCommitPairCache open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new BinaryCommitPairCache(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Reads the cache file onto the heap. Use this instead of {@link #open} when the file is about
+     * to be rewritten, since a live mapping keeps the file locked on Windows.
+     */
+    public static BinaryCommitPairCache load(Path path) throws IOException {
+        return new BinaryCommitPairCache(ByteBuffer.wrap(Files.readAllBytes(path)));
+    }
+
+    public int size() {
+        return pairCount;
+    }
+
+    public List<CommitPairDTO> toDTOs() {
+        List<CommitPairDTO> dtos = new ArrayList<>(pairCount);
+        for (int i = 0; i < pairCount; i++) {
+            dtos.add(new CommitPairDTO(
+                    readId(oldIdsStart, i).name(),
+                    readId(newIdsStart, i).name(),
+                    readFiles(i),
+                    readHunks(i)));
+        }
+        return dtos;
+    }
+
+    /** Parses the commits of pairs {@code [from, to)} with a RevWalk that is discarded afterwards. */
+    public List<CommitPairWithFiles> resolve(Repository repo, int from, int to) throws IOException {
+        List<CommitPairWithFiles> pairs = new ArrayList<>(to - from);
+        try (RevWalk walk = new RevWalk(repo)) {
+            for (int i = from; i < to; i++) {
+                RevCommit oldCommit = walk.parseCommit(readId(oldIdsStart, i));
+                RevCommit newCommit = walk.parseCommit(readId(newIdsStart, i));
+                pairs.add(new CommitPairWithFiles(oldCommit, newCommit, readFiles(i), readHunks(i)));
+            }
+        }
+        return pairs;
+    }
+
+    private ObjectId readId(int columnStart, int index) {
+        byte[] raw = new byte[ID_LENGTH];
+        buffer.get(columnStart + index * ID_LENGTH, raw);
+        return ObjectId.fromRaw(raw);
+    }
+
+    private ByteBuffer entry(int index) {
+        ByteBuffer in = buffer.duplicate();
+        in.position(filesStart + buffer.getInt(offsetsStart + index * Integer.BYTES));
+        return in;
+    }
+
+    private List<String> readFiles(int index) {
+        ByteBuffer in = entry(index);
+        int fileCount = readVarint(in);
+        List<String> files = new ArrayList<>(fileCount);
+        for (int f = 0; f < fileCount; f++) {
+            files.add(paths[readVarint(in)]);
+            skipRanges(in);
+            skipRanges(in);
+        }
+        return files;
+    }
+
+    private Map<String, FileHunks> readHunks(int index) {
+        ByteBuffer in = entry(index);
+        int fileCount = readVarint(in);
+        Map<String, FileHunks> hunks = new HashMap<>();
+        for (int f = 0; f < fileCount; f++) {
+            String path = paths[readVarint(in)];
+            List<FileHunks.LineRange> oldLines = readRanges(in);
+            List<FileHunks.LineRange> newLines = readRanges(in);
+            if (oldLines != null && newLines != null) {
+                hunks.put(path, new FileHunks(oldLines, newLines));
+            }
+        }
+        return hunks;
+    }
+
+    private static List<FileHunks.LineRange> readRanges(ByteBuffer in) {
+        int count = readVarint(in) - 1;
+        if (count < 0) {
+            return null;
+        }
+        List<FileHunks.LineRange> ranges = new ArrayList<>(count);
+        for (int r = 0; r < count; r++) {
+            int begin = readVarint(in);
+            ranges.add(new FileHunks.LineRange(begin, begin + readVarint(in)));
+        }
+        return ranges;
+    }
+
+    private static void skipRanges(ByteBuffer in) {
+        int count = readVarint(in) - 1;
+        for (int r = 0; r < count * 2; r++) {
+            readVarint(in);
+        }
+    }
+
+    /** Writes {@code dtos} to {@code path}, replacing any previous cache atomically. */
+    public static void write(List<CommitPairDTO> dtos, Path path) throws IOException {
+        // intern the path table
+        Map<String, Integer> pathIndex = new LinkedHashMap<>();
+        for (CommitPairDTO dto : dtos) {
+            for (String file : dto.changedFiles()) {
+                pathIndex.putIfAbsent(file, pathIndex.size());
+            }
+        }
+
+        // encode the variable-length file section first so its offsets are known
+        ByteArrayOutputStream files = new ByteArrayOutputStream();
+        int[] offsets = new int[dtos.size() + 1];
+        for (int i = 0; i < dtos.size(); i++) {
+            offsets[i] = files.size();
+            CommitPairDTO dto = dtos.get(i);
+            Map<String, FileHunks> hunks = dto.hunks() != null ? dto.hunks() : Map.of();
+            writeVarint(files, dto.changedFiles().size());
+            for (String file : dto.changedFiles()) {
+                writeVarint(files, pathIndex.get(file));
+                FileHunks fileHunks = hunks.get(file);
+                writeRanges(files, fileHunks != null ? fileHunks.oldLines() : null);
+                writeRanges(files, fileHunks != null ? fileHunks.newLines() : null);
+            }
+        }
+        offsets[dtos.size()] = files.size();
+
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(dtos.size());
+            out.writeInt(pathIndex.size());
+            for (String file : pathIndex.keySet()) {
+                byte[] bytes = file.getBytes(StandardCharsets.UTF_8);
+                writeVarint(out, bytes.length);
+                out.write(bytes);
+            }
+            byte[] raw = new byte[ID_LENGTH];
+            for (CommitPairDTO dto : dtos) {
+                ObjectId.fromString(dto.oldCommitSha()).copyRawTo(raw, 0);
+                out.write(raw);
+            }
+            for (CommitPairDTO dto : dtos) {
+                ObjectId.fromString(dto.newCommitSha()).copyRawTo(raw, 0);
+                out.write(raw);
+            }
+            for (int offset : offsets) {
+                out.writeInt(offset);
+            }
+            files.writeTo(out);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeRanges(OutputStream out, List<FileHunks.LineRange> ranges) throws IOException {
+        if (ranges == null) {
+            writeVarint(out, 0);
+            return;
+        }
+        writeVarint(out, ranges.size() + 1);
+        for (FileHunks.LineRange range : ranges) {
+            writeVarint(out, range.begin());
+            writeVarint(out, range.end() - range.begin());
+        }
+    }
+
+    private static void writeVarint(OutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
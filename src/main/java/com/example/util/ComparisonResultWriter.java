@@ -0,0 +1,62 @@
+package com.example.util;
+
+import com.example.classifier.MutationKind;
+import com.example.dto.FileResultDto;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Streams the {@code comparison_*.json} output of one repository run. The generator stays open
+ * for the whole run, so each batch costs only its own serialization instead of a re-read and
+ * rewrite of everything written so far. The file is only valid JSON once {@link #close} has
+ * written the {@code patternCounts} trailer.
+ */
+public class ComparisonResultWriter implements Closeable {
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final JsonGenerator generator;
+    private Map<MutationKind, Integer> patternCounts = Map.of();
+
+    public ComparisonResultWriter(String repoUrl) throws IOException {
+        File output = new File("src/main/resources/programOutput/" + JsonUtils.generateComparisonFileName(repoUrl));
+        this.generator = mapper.getFactory().createGenerator(output, JsonEncoding.UTF8);
+        generator.useDefaultPrettyPrinter();
+        generator.writeStartObject();
+        generator.writeStringField("repoUrl", repoUrl);
+        generator.writeArrayFieldStart("fileResults");
+    }
+
+    public synchronized void append(Collection<FileResultDto> results) throws IOException {
+        for (FileResultDto result : results) {
+            mapper.writeValue(generator, result);
+        }
+        generator.flush();
+    }
+
+    /** Counts written as the trailer when the writer is closed. */
+    public synchronized void setPatternCounts(Map<MutationKind, Integer> counts) {
+        this.patternCounts = counts;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (generator.isClosed()) {
+            return;
+        }
+        generator.writeEndArray();
+        generator.writeObjectFieldStart("patternCounts");
+        for (var e : patternCounts.entrySet()) {
+            generator.writeNumberField(e.getKey().name(), e.getValue());
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.close();
+    }
+}
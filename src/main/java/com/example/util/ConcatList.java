@@ -0,0 +1,41 @@
+package com.example.util;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read-only list view over several lists joined end to end, so joining them copies nothing.
+ */
+public class ConcatList<T> extends AbstractList<T> implements RandomAccess {
+    private final List<? extends List<? extends T>> parts;
+    private final int size;
+
+    private ConcatList(List<? extends List<? extends T>> parts) {
+        this.parts = parts;
+        this.size = parts.stream().mapToInt(List::size).sum();
+    }
+
+    public static <T> List<T> of(List<? extends List<? extends T>> parts) {
+        return new ConcatList<>(List.copyOf(parts));
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        for (List<? extends T> part : parts) {
+            if (index < part.size()) {
+                return part.get(index);
+            }
+            index -= part.size();
+        }
+        throw new IndexOutOfBoundsException(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
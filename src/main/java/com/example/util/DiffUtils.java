@@ -104,6 +104,13 @@ public class DiffUtils {
         if (diff.getOldPath().contains("REMOVE_INCREMENTS")) {
             System.out.println("=== File: " + diff.getOldPath() + " ===");
         }
+        return countMeaningfulChangedLinesInBlock(oldText, newText, edit);
+    }
+
+    /**
+     * Same as above, for callers that already hold both file versions in memory.
+     */
+    public static int countMeaningfulChangedLinesInBlock(RawText oldText, RawText newText, Edit edit) {
         int meaningful = 0;
 
         switch (edit.getType()) {
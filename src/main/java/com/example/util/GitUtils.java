@@ -1,14 +1,21 @@
 package com.example.util;
 
 import com.example.CommitPairWithFiles;
+import com.example.FileHunks;
+import com.example.config.MutationAnalysisConfig;
 import com.example.service.GitRepositoryManager;
 import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.LogCommand;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.diff.*;
+import org.eclipse.jgit.errors.LargeObjectException;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectLoader;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevObject;
 import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.revwalk.RevTree;
 import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
@@ -29,13 +36,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 @Component
 public class GitUtils {
-    private static final int THREAD_COUNT = Runtime.getRuntime().availableProcessors()/2;
+    private static int threadCount = Runtime.getRuntime().availableProcessors();
 
     private static GitRepositoryManager repoManager;
 
     @Autowired
-    public GitUtils(GitRepositoryManager manager) {
+    public GitUtils(GitRepositoryManager manager, MutationAnalysisConfig config) {
         GitUtils.repoManager = manager;
+        GitUtils.threadCount = config.resolvedScanThreads();
     }
 
     public static Repository getRepository(String repoDir) throws IOException {
@@ -88,6 +96,24 @@ public class GitUtils {
         }
     }
 
+    /**
+     * Fetches every remote of {@code repository}, pruning refs deleted upstream, so that
+     * {@link #getRefTips} sees new upstream history. A failed fetch (offline, no remote) is
+     * reported and the local refs are used as they are.
+     */
+    public static void fetch(Repository repository) {
+        try {
+            for (String remote : repository.getRemoteNames()) {
+                Git.wrap(repository).fetch()
+                        .setRemote(remote)
+                        .setRemoveDeletedRefs(true)
+                        .call();
+            }
+        } catch (GitAPIException e) {
+            System.out.println("Fetch failed, using local refs: " + e.getMessage());
+        }
+    }
+
     // helper to wipe out a directory tree
     private static void deleteRecursively(File f) {
         if (f.isDirectory()) {
@@ -118,16 +144,38 @@ public class GitUtils {
             List<String> allowedExtensions,
             boolean debug
     ) throws Exception {
+        Set<String> allTips = getRefTips(ensureLoaded(repoUrl, localRepoPath));
+        return processNewHistory(repoUrl, localRepoPath, allowedExtensions, Set.of(), allTips, debug);
+    }
 
-        File repoDir = new File(localRepoPath);
-        if (!repoDir.exists() || Objects.requireNonNull(repoDir.listFiles()).length == 0) {
-            ensureClonedAndLoaded(repoUrl, localRepoPath);
-        }
+    /**
+     * Like {@link #processRepo}, but only walks commits reachable from {@code currentTips} and not
+     * reachable from {@code knownTips}, i.e. the history added since {@code knownTips} were recorded.
+     * Known tips that no longer exist in the repository (rewritten or gc'd history) are ignored.
+     */
+    public static List<CommitPairWithFiles> processNewHistory(
+            String repoUrl,
+            String localRepoPath,
+            List<String> allowedExtensions,
+            Set<String> knownTips,
+            Set<String> currentTips,
+            boolean debug
+    ) throws Exception {
 
-        Repository repository = repoManager.loadRepository(localRepoPath);
+        Repository repository = ensureLoaded(repoUrl, localRepoPath);
         Git git = new Git(repository);
 
-        Iterable<RevCommit> allCommits = git.log().all().call();
+        LogCommand log = git.log();
+        for (String tip : currentTips) {
+            log.add(ObjectId.fromString(tip));
+        }
+        for (String tip : knownTips) {
+            ObjectId id = ObjectId.fromString(tip);
+            if (repository.getObjectDatabase().has(id)) {
+                log.not(id);
+            }
+        }
+        Iterable<RevCommit> allCommits = log.call();
 
         // Build unique commit pairs
         Set<String> seenIds = new HashSet<>();
@@ -144,10 +192,17 @@ public class GitUtils {
         int total = pairs.size();
         AtomicInteger completed = new AtomicInteger(0);
         List<CommitPairWithFiles> result = Collections.synchronizedList(new ArrayList<>());
-        Map<String, List<DiffEntry>> diffCache = new ConcurrentHashMap<>();
+
+        // One scanner (ObjectReader + DiffFormatter) per worker thread, closed once all pairs are done
+        List<PairScanner> scanners = new CopyOnWriteArrayList<>();
+        ThreadLocal<PairScanner> localScanner = ThreadLocal.withInitial(() -> {
+            PairScanner scanner = new PairScanner(repository);
+            scanners.add(scanner);
+            return scanner;
+        });
 
         // Setup thread pool
-        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
         CompletionService<Void> cs = new ExecutorCompletionService<>(executor);
 
         // Submit tasks
@@ -157,67 +212,9 @@ public class GitUtils {
                 RevCommit newC = entry.getValue();
                 String pairId = oldC.getName() + ":" + newC.getName();
                 try {
-                    List<DiffEntry> diffs = diffCache.computeIfAbsent(pairId, k -> {
-                        try {
-                            return getDiffs(repository, oldC, newC);
-                        } catch (IOException e) {
-                            System.err.println("Error computing diffs for " + k + ": " + e.getMessage());
-                            return Collections.emptyList();
-                        }
-                    });
-
-                    List<String> smallFiles = diffs.stream()
-                            // 1) only modified files with an allowed extension
-                            .filter(d -> d.getChangeType() == DiffEntry.ChangeType.MODIFY)
-                            .filter(d -> allowedExtensions.stream().anyMatch(ext -> d.getNewPath().endsWith(ext)))
-                            // 2) only diffs where total changed lines ≤ 3
-                            .filter(d -> {
-                                try (DiffFormatter df = new DiffFormatter(DisabledOutputStream.INSTANCE)) {
-                                    df.setRepository(repository);
-
-                                    df.setDiffAlgorithm(DiffAlgorithm.getAlgorithm(DiffAlgorithm.SupportedAlgorithm.MYERS));
-                                    df.setDiffComparator(RawTextComparator.WS_IGNORE_ALL);
-                                    df.setContext(3);
-
-                                    df.setDetectRenames(true);
-
-                                    // split the diff into individual edit blocks
-                                    EditList edits = df.toFileHeader(d).toEditList();
-                                    if (edits.isEmpty()) {
-                                        return false;  // no real changes at all
-                                    }
-
-                                    // for every block, count the meaningful lines
-                                    boolean atLeastOneLineChanged = false;
-                                    for (Edit e : edits) {
-                                        int blockMeanings = DiffUtils.countMeaningfulChangedLinesInBlock(
-                                                repository, oldC, newC, d, e);
-
-                                        if (debug) {
-                                            System.out.println("Block " + e + " has "
-                                                    + blockMeanings + " meaningful lines");
-                                        }
-                                        if (blockMeanings < 3) {
-                                            atLeastOneLineChanged = true;
-                                        }else {
-                                            return false;
-                                        }
-                                    }
-
-                                    // passed: every block had exactly one meaningful changed line
-                                    return atLeastOneLineChanged;
-                                } catch (IOException io) {
-                                    if (debug) io.printStackTrace();
-                                    return false;
-                                }
-                            })
-                            // 4) map to the file path
-                            .map(DiffEntry::getNewPath)
-                            .collect(Collectors.toList());
-
-
-                    if (!smallFiles.isEmpty()) {
-                        result.add(new CommitPairWithFiles(oldC, newC, smallFiles));
+                    CommitPairWithFiles pair = localScanner.get().scan(oldC, newC, allowedExtensions, debug);
+                    if (pair != null) {
+                        result.add(pair);
                     }
                 } catch (Exception e) {
                     System.err.println("Error processing " + pairId + ": " + e.getMessage());
@@ -234,18 +231,129 @@ public class GitUtils {
         if (!executor.awaitTermination(10, TimeUnit.MINUTES)) {
             executor.shutdownNow();
         }
+        scanners.forEach(PairScanner::close);
         System.out.println();
         return result;
     }
 
-    private static List<DiffEntry> getDiffs(Repository repo, RevCommit oldC, RevCommit newC) throws IOException {
-        try (DiffFormatter df = new DiffFormatter(DisabledOutputStream.INSTANCE)) {
-            df.setRepository(repo);
-            df.setDiffComparator(RawTextComparator.WS_IGNORE_ALL);
-            df.setContext(0);
-            df.setDetectRenames(true);
-            return df.scan(oldC.getTree(), newC.getTree());
+    /**
+     * Scans commit pairs for small changes in a single pass: one rename-detecting tree diff per
+     * pair, then each candidate blob is read once and diffed in memory to get both its edit list
+     * and the meaningful-line count of every block. Not thread-safe; use one per worker thread.
+     */
+    private static class PairScanner implements AutoCloseable {
+        private static final DiffAlgorithm DIFF_ALGORITHM =
+                DiffAlgorithm.getAlgorithm(DiffAlgorithm.SupportedAlgorithm.MYERS);
+
+        private final ObjectReader reader;
+        private final DiffFormatter formatter;
+
+        PairScanner(Repository repository) {
+            this.reader = repository.newObjectReader();
+            this.formatter = new DiffFormatter(DisabledOutputStream.INSTANCE);
+            formatter.setReader(reader, repository.getConfig());
+            formatter.setDiffComparator(RawTextComparator.WS_IGNORE_ALL);
+            formatter.setContext(0);
+            formatter.setDetectRenames(true);
+        }
+
+        /** Returns the pair with its small changed files, or {@code null} if it has none. */
+        CommitPairWithFiles scan(RevCommit oldC,
+                                 RevCommit newC,
+                                 List<String> allowedExtensions,
+                                 boolean debug) throws IOException {
+            List<String> smallFiles = new ArrayList<>();
+            Map<String, FileHunks> hunks = new HashMap<>();
+
+            for (DiffEntry d : formatter.scan(oldC.getTree(), newC.getTree())) {
+                // 1) only modified files with an allowed extension
+                if (d.getChangeType() != DiffEntry.ChangeType.MODIFY) continue;
+                if (allowedExtensions.stream().noneMatch(ext -> d.getNewPath().endsWith(ext))) continue;
+
+                // 2) only diffs where every block has fewer than 3 meaningful lines;
+                //    a blob that can't be read skips only its own file
+                EditList edits;
+                try {
+                    edits = smallChangeEdits(d, debug);
+                } catch (IOException | LargeObjectException e) {
+                    if (debug) e.printStackTrace();
+                    continue;
+                }
+                if (edits == null) continue;
+
+                // 3) keep the path together with its hunks
+                smallFiles.add(d.getNewPath());
+                hunks.put(d.getNewPath(), FileHunks.of(edits));
+            }
+
+            return smallFiles.isEmpty() ? null : new CommitPairWithFiles(oldC, newC, smallFiles, hunks);
+        }
+
+        /**
+         * Returns the edit list of {@code d} if it is a small change (every block has fewer than
+         * 3 meaningful lines), or {@code null} otherwise.
+         */
+        private EditList smallChangeEdits(DiffEntry d, boolean debug) throws IOException {
+            byte[] oldBytes = reader.open(d.getOldId().toObjectId()).getCachedBytes();
+            byte[] newBytes = reader.open(d.getNewId().toObjectId()).getCachedBytes();
+            if (RawText.isBinary(oldBytes) || RawText.isBinary(newBytes)) {
+                return null;
+            }
+            RawText oldText = new RawText(oldBytes);
+            RawText newText = new RawText(newBytes);
+
+            // split the diff into individual edit blocks
+            EditList edits = DIFF_ALGORITHM.diff(RawTextComparator.WS_IGNORE_ALL, oldText, newText);
+            if (edits.isEmpty()) {
+                return null;  // no real changes at all
+            }
+
+            // for every block, count the meaningful lines
+            for (Edit e : edits) {
+                int blockMeanings = DiffUtils.countMeaningfulChangedLinesInBlock(oldText, newText, e);
+
+                if (debug) {
+                    System.out.println("Block " + e + " has "
+                            + blockMeanings + " meaningful lines");
+                }
+                if (blockMeanings >= 3) {
+                    return null;
+                }
+            }
+
+            // passed: every block had fewer than 3 meaningful changed lines
+            return edits;
+        }
+
+        @Override
+        public void close() {
+            formatter.close();
+            reader.close();
+        }
+    }
+
+    private static Repository ensureLoaded(String repoUrl, String localRepoPath) {
+        File repoDir = new File(localRepoPath);
+        if (!repoDir.exists() || Objects.requireNonNull(repoDir.listFiles()).length == 0) {
+            ensureClonedAndLoaded(repoUrl, localRepoPath);
+        }
+        return repoManager.loadRepository(localRepoPath);
+    }
+
+    /** SHAs of the commits that all refs (branches, tags, remotes) currently point to. */
+    public static Set<String> getRefTips(Repository repository) throws IOException {
+        Set<String> tips = new TreeSet<>();
+        try (RevWalk walk = new RevWalk(repository)) {
+            for (Ref ref : repository.getRefDatabase().getRefs()) {
+                ObjectId id = ref.getObjectId();
+                if (id == null) continue;
+                RevObject target = walk.peel(walk.parseAny(id));
+                if (target instanceof RevCommit) {
+                    tips.add(target.getName());
+                }
+            }
         }
+        return tips;
     }
 
     private static int countChangedLines(Git git, DiffEntry diff, boolean debug) throws IOException {
@@ -292,7 +400,11 @@ public class GitUtils {
         System.out.flush();
     }
 
-    public static File extractFileAtCommit(RevCommit commit, String filePath) {
+    /**
+     * Loads the blob of {@code filePath} at {@code commit} straight from the object database,
+     * without going through a temporary file.
+     */
+    public static SourceText readFileAtCommit(RevCommit commit, String filePath) {
         Repository repository = repoManager.getCurrentRepository();
 
         try (TreeWalk treeWalk = new TreeWalk(repository)) {
@@ -320,14 +432,7 @@ public class GitUtils {
                 return null;
             }
 
-            File tempFile = File.createTempFile(
-                    "commit_" + commit.getName(), "_" + filePath.replace("/", "_"));
-
-            try (FileOutputStream out = new FileOutputStream(tempFile)) {
-                loader.copyTo(out);
-            }
-
-            return tempFile;
+            return SourceText.of(filePath, objectId, loader.getBytes());
 
         } catch (IOException e) {
             System.err.println("Error extracting file at commit: " + commit.getName() +
@@ -0,0 +1,121 @@
+package com.example.util;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.Position;
+import com.github.javaparser.Range;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import spoon.reflect.cu.SourcePosition;
+import spoon.reflect.declaration.CtElement;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JavaParser nodes of one source file ordered by position, for mapping Spoon elements to
+ * their JavaParser counterpart. Nodes are sorted by begin ascending and end descending, so a
+ * binary search finds the last node starting at or before a Spoon element. The tightest node
+ * enclosing the element is always that node or one of its ancestors, which keeps a lookup at
+ * O(log n) plus the depth of the tree.
+ */
+public class JavaParserNodeIndex {
+    private static final ParserConfiguration CONFIGURATION = new ParserConfiguration()
+            .setLanguageLevel(ParserConfiguration.LanguageLevel.BLEEDING_EDGE);
+
+    private final Node[] nodes;
+    private final Position[] begins;
+
+    private record Entry(Node node, Range range, int depth) {}
+
+    private JavaParserNodeIndex(List<Entry> entries) {
+        entries.sort(Comparator
+                .comparing((Entry e) -> e.range().begin)
+                .thenComparing((Entry e) -> e.range().end, Comparator.reverseOrder())
+                .thenComparingInt(Entry::depth));
+        this.nodes = new Node[entries.size()];
+        this.begins = new Position[entries.size()];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = entries.get(i).node();
+            begins[i] = entries.get(i).range().begin;
+        }
+    }
+
+    /** Parses {@code source}; a file JavaParser can't parse gets an empty index. */
+    public static JavaParserNodeIndex of(SourceText source) {
+        ParseResult<CompilationUnit> result = new JavaParser(CONFIGURATION).parse(source.getContent());
+        List<Entry> entries = new ArrayList<>();
+        result.getResult().ifPresent(cu -> collect(cu, 0, entries));
+        return new JavaParserNodeIndex(entries);
+    }
+
+    /** Number of indexed nodes. */
+    public int size() {
+        return nodes.length;
+    }
+
+    private static void collect(Node node, int depth, List<Entry> entries) {
+        node.getRange().ifPresent(range -> entries.add(new Entry(node, range, depth)));
+        for (Node child : node.getChildNodes()) {
+            collect(child, depth + 1, entries);
+        }
+    }
+
+    /**
+     * The smallest node whose range encloses the element's range; among nodes with the same
+     * range the outermost one (e.g. the NameExpr rather than its SimpleName).
+     */
+    public Optional<Node> find(CtElement element) {
+        if (element == null || nodes.length == 0) {
+            return Optional.empty();
+        }
+        SourcePosition pos = element.getPosition();
+        if (pos == null || !pos.isValidPosition()) {
+            return Optional.empty();
+        }
+        Range target = Range.range(pos.getLine(), pos.getColumn(), pos.getEndLine(), pos.getEndColumn());
+
+        int index = lastBeginAtOrBefore(target.begin);
+        if (index < 0) {
+            return Optional.empty();
+        }
+
+        Node node = nodes[index];
+        while (node != null && !encloses(node, target)) {
+            node = node.getParentNode().orElse(null);
+        }
+        if (node == null) {
+            return Optional.empty();
+        }
+        Range range = node.getRange().get();
+        Node parent = node.getParentNode().orElse(null);
+        while (parent != null && range.equals(parent.getRange().orElse(null))) {
+            node = parent;
+            parent = node.getParentNode().orElse(null);
+        }
+        return Optional.of(node);
+    }
+
+    private int lastBeginAtOrBefore(Position position) {
+        int low = 0;
+        int high = begins.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (begins[mid].compareTo(position) <= 0) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    private static boolean encloses(Node node, Range target) {
+        return node.getRange().map(r -> r.contains(target)).orElse(false);
+    }
+}
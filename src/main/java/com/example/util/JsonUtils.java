@@ -5,6 +5,10 @@ import com.example.classifier.MutationKind;
 import com.example.dto.CommitPairDTO;
 import com.example.dto.FileResultDto;
 import com.example.mapper.ResultMapper;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -16,78 +20,57 @@ import org.apache.commons.io.FileUtils;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.util.*;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
 
 import com.example.pojo.FileResult;
 
 public class JsonUtils {
     private static final ObjectMapper mapper = new ObjectMapper();
 
-    public static void initializeJsonOutput(String repoUrl) {
-        String outputPath = "src/main/resources/programOutput/" + generateComparisonFileName(repoUrl);
-        try {
-            ObjectNode root = mapper.createObjectNode();
-            root.put("repoUrl", repoUrl);
-            root.set("fileResults", mapper.createArrayNode());
-            mapper.writerWithDefaultPrettyPrinter().writeValue(new File(outputPath), root);
-        } catch (IOException e) {
-            System.err.println("Failed to initialize JSON output: " + e.getMessage());
-        }
-    }
-
-    public static void appendPatternCounts(String repoUrl,
-                                           ConcurrentMap<MutationKind,Integer> counts) {
-        String path = "src/main/resources/programOutput/" + generateComparisonFileName(repoUrl);
+    public static void writeCommitPairDTOsToFile(List<CommitPairDTO> dtos, String path) {
         try {
-            ObjectNode root = (ObjectNode) mapper.readTree(new File(path));
-            ObjectNode pc = mapper.createObjectNode();
-            for (var e : counts.entrySet()) {
-                pc.put(e.getKey().name(), e.getValue());
-            }
-            root.set("patternCounts", pc);
-            mapper.writerWithDefaultPrettyPrinter().writeValue(new File(path), root);
+            new File(path).getParentFile().mkdirs();
+            ObjectMapper mapper = new ObjectMapper();
+            mapper.writerWithDefaultPrettyPrinter().writeValue(new File(path), dtos);
         } catch (IOException e) {
-            System.err.println("Failed to append patternCounts: " + e.getMessage());
+            System.err.println("Failed to write DTOs: " + e.getMessage());
         }
     }
 
-    public static void appendBatchResults(String repoUrl, List<FileResultDto> batchResults) {
-        String outputPath = "src/main/resources/programOutput/" + generateComparisonFileName(repoUrl);
+    public static List<CommitPairDTO> readCommitPairDTOsFromFile(String path) {
         try {
-            byte[] jsonData = Files.readAllBytes(new File(outputPath).toPath());
-            ObjectNode root = (ObjectNode) mapper.readTree(jsonData);
-            ArrayNode fileResultsNode = (ArrayNode) root.get("fileResults");
-
-            for (FileResultDto resultDto : batchResults) {
-                fileResultsNode.addPOJO(resultDto);
-            }
-
-            mapper.writerWithDefaultPrettyPrinter().writeValue(new File(outputPath), root);
+            ObjectMapper mapper = new ObjectMapper();
+            return Arrays.asList(mapper.readValue(new File(path), CommitPairDTO[].class));
         } catch (IOException e) {
-            System.err.println("Failed to append batch results to JSON: " + e.getMessage());
+            System.err.println("Failed to read DTOs: " + e.getMessage());
+            return List.of();
         }
     }
 
-
-    public static void writeCommitPairDTOsToFile(List<CommitPairDTO> dtos, String path) {
+    public static void writeRefTips(Set<String> tips, String path) {
         try {
             new File(path).getParentFile().mkdirs();
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.writerWithDefaultPrettyPrinter().writeValue(new File(path), dtos);
+            mapper.writerWithDefaultPrettyPrinter().writeValue(new File(path), new TreeSet<>(tips));
         } catch (IOException e) {
-            System.err.println("Failed to write DTOs: " + e.getMessage());
+            System.err.println("Failed to write ref tips: " + e.getMessage());
         }
     }
 
-    public static List<CommitPairDTO> readCommitPairDTOsFromFile(String path) {
+    /** Returns the recorded ref tips, or an empty set if none were recorded yet. */
+    public static Set<String> readRefTips(String path) {
+        File file = new File(path);
+        if (!file.exists()) {
+            return Set.of();
+        }
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            return Arrays.asList(mapper.readValue(new File(path), CommitPairDTO[].class));
+            return new TreeSet<>(Arrays.asList(mapper.readValue(file, String[].class)));
         } catch (IOException e) {
-            System.err.println("Failed to read DTOs: " + e.getMessage());
-            return List.of();
+            System.err.println("Failed to read ref tips: " + e.getMessage());
+            return Set.of();
         }
     }
 
@@ -108,77 +91,62 @@ public class JsonUtils {
         return "comparison_" + owner + "_" + repo + ".json";
     }
     /**
-     * Reads the comparison JSON for the given repoUrl, filters out duplicate edit operations
-     * (by type, fromText, toText), removes any fileResults that end up with no operations,
-     * and writes the result to a new file prefixed with 'unique_'.
+     * Streams the comparison JSON for the given repoUrl, filters out duplicate edit operations
+     * (by type, fromText, toText), drops any fileResults that end up with no operations,
+     * and writes the result to a new file prefixed with 'filtered_'.
+     * Only one fileResult is held in memory at a time.
      */
     public static void filterUniqueOperations(String repoUrl) {
+        filterUniqueOperations(repoUrl, false);
+    }
+
+    /**
+     * As {@link #filterUniqueOperations(String)}.
+     * @param offHeapSeenSet keep the dedup table in direct memory instead of on the heap
+     */
+    public static void filterUniqueOperations(String repoUrl, boolean offHeapSeenSet) {
         String baseName = generateComparisonFileName(repoUrl);
         String inputPath = "src/main/resources/programOutput/" + baseName;
         String uniqueName = "filtered_" + baseName;
         String outputPath = "src/main/resources/programOutputFiltered/" + uniqueName;
 
-        try {
-            // 1. Read the full input JSON
-            JsonNode root = mapper.readTree(new File(inputPath));
-            ArrayNode fileResults = (ArrayNode) root.get("fileResults");
-
-            // Option A: grab the original patternCounts object if it exists
-            JsonNode originalPatternCounts = root.get("patternCounts");
-
-            // Prepare your filter structures
-            Set<String> seen = new HashSet<>();
-            ArrayNode filteredFileResults = mapper.createArrayNode();
-
-            // Option B: recompute counts of each pattern type
-            Map<String,Integer> recomputedCounts = new HashMap<>();
-
-            for (JsonNode fileResult : fileResults) {
-                ArrayNode ops = (ArrayNode) fileResult.get("editOperations");
-                ArrayNode filteredOps = mapper.createArrayNode();
-
-                for (JsonNode op : ops) {
-                    String type     = op.path("type").asText();
-                    String fromText = op.path("fromText").asText();
-                    String toText   = op.path("toText").asText();
-                    String key      = type + "||" + fromText + "||" + toText;
-
-                    if (seen.add(key)) {
-                        filteredOps.add(op);
-
-                        // ------ for Option 2: bump the count for this pattern ------
-                        recomputedCounts.put(
-                                type,
-                                recomputedCounts.getOrDefault(type, 0) + 1
-                        );
-                    }
-                }
+        OperationKeySet seen = new OperationKeySet(offHeapSeenSet);
+        try (JsonParser parser = mapper.getFactory().createParser(new File(inputPath));
+             JsonGenerator out = mapper.getFactory().createGenerator(new File(outputPath), JsonEncoding.UTF8)) {
+            out.useDefaultPrettyPrinter();
 
-                // Only include fileResult if there are operations left
-                if (filteredOps.size() > 0) {
-                    ObjectNode clone = ((ObjectNode) fileResult).deepCopy();
-                    clone.set("editOperations", filteredOps);
-                    filteredFileResults.add(clone);
-                }
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object in " + inputPath);
             }
+            out.writeStartObject();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+
+                if ("fileResults".equals(field) && parser.currentToken() == JsonToken.START_ARRAY) {
+                    out.writeArrayFieldStart("fileResults");
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        ObjectNode fileResult = parser.readValueAsTree();
+                        ArrayNode ops = (ArrayNode) fileResult.get("editOperations");
+                        ArrayNode filteredOps = mapper.createArrayNode();
+                        if (ops != null) {
+                            extractOps(ops, seen, filteredOps::add);
+                        }
 
-            // Build output root
-            ObjectNode outRoot = mapper.createObjectNode();
-            outRoot.put("repoUrl", repoUrl);
-            outRoot.set("fileResults", filteredFileResults);
-
-            // ====== ATTACH METRICS HERE ======
-
-            // If you want to reuse the original metrics block:
-            if (originalPatternCounts != null) {
-                outRoot.set("patternCounts", originalPatternCounts);
+                        // Only include fileResult if there are operations left
+                        if (!filteredOps.isEmpty()) {
+                            fileResult.set("editOperations", filteredOps);
+                            mapper.writeTree(out, fileResult);
+                        }
+                    }
+                    out.writeEndArray();
+                } else {
+                    // repoUrl, patternCounts and anything else pass through unchanged
+                    out.writeFieldName(field);
+                    out.copyCurrentStructure(parser);
+                }
             }
-
-            // ==================================
-
-            // Finally write it out
-            mapper.writerWithDefaultPrettyPrinter()
-                    .writeValue(new File(outputPath), outRoot);
+            out.writeEndObject();
 
             System.out.println("Wrote unique comparison JSON to " + outputPath);
         } catch (IOException e) {
@@ -186,78 +154,100 @@ public class JsonUtils {
         }
     }
 
+    public static void aggregateUniqueOperations(String filteredDirPath, String outputPath) {
+        aggregateUniqueOperations(filteredDirPath, outputPath, false);
+    }
+
     /**
      * Aggregates all filtered JSON files (either with `fileResults` wrappers or
      * direct `editOperations` arrays) in a directory into one big JSON of unique ops.
+     * Input files are streamed and unique operations are written out as they are found,
+     * so memory is bounded by the seen-set rather than the size of the inputs.
      * @param filteredDirPath directory containing JSON files to aggregate
      * @param outputPath where to write the combined JSON
+     * @param offHeapSeenSet keep the dedup table in direct memory instead of on the heap
      */
-    public static void aggregateUniqueOperations(String filteredDirPath, String outputPath) {
-        try {
-            Set<String> seen = new HashSet<>();
-            ArrayNode operations = mapper.createArrayNode();
-            Map<String, Integer> aggregatedPatternCounts = new HashMap<>();
+    public static void aggregateUniqueOperations(String filteredDirPath, String outputPath, boolean offHeapSeenSet) {
+        OperationKeySet seen = new OperationKeySet(offHeapSeenSet);
+        Map<String, Integer> aggregatedPatternCounts = new TreeMap<>();
+
+        File dir = new File(filteredDirPath);
+        File[] files = dir.listFiles((d, name) -> name.endsWith(".json"));
 
-            File dir = new File(filteredDirPath);
-            File[] files = dir.listFiles((d, name) -> name.endsWith(".json"));
+        try (JsonGenerator out = mapper.getFactory().createGenerator(new File(outputPath), JsonEncoding.UTF8)) {
+            out.useDefaultPrettyPrinter();
+            out.writeStartObject();
+            out.writeArrayFieldStart("editOperations");
 
             if (files != null) {
                 for (File f : files) {
-                    JsonNode root = mapper.readTree(f);
-
-                    // Aggregate editOperations uniquely
-                    if (root.has("fileResults")) {
-                        for (JsonNode fileResult : root.get("fileResults")) {
-                            ArrayNode ops = (ArrayNode) fileResult.get("editOperations");
-                            if (ops != null) extractOps(ops, seen, operations);
+                    try (JsonParser parser = mapper.getFactory().createParser(f)) {
+                        if (parser.nextToken() != JsonToken.START_OBJECT) {
+                            continue;
+                        }
+                        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                            String field = parser.getCurrentName();
+                            JsonToken value = parser.nextToken();
+
+                            if ("fileResults".equals(field) && value == JsonToken.START_ARRAY) {
+                                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                                    JsonNode fileResult = parser.readValueAsTree();
+                                    JsonNode ops = fileResult.get("editOperations");
+                                    if (ops instanceof ArrayNode array) {
+                                        extractOps(array, seen, op -> writeOp(out, op));
+                                    }
+                                }
+                            } else if ("editOperations".equals(field) && value == JsonToken.START_ARRAY) {
+                                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                                    JsonNode op = parser.readValueAsTree();
+                                    extractOps(List.of(op), seen, o -> writeOp(out, o));
+                                }
+                            } else if ("patternCounts".equals(field) && value == JsonToken.START_OBJECT) {
+                                JsonNode patternCounts = parser.readValueAsTree();
+                                patternCounts.fields().forEachRemaining(entry ->
+                                        aggregatedPatternCounts.merge(entry.getKey(), entry.getValue().asInt(), Integer::sum));
+                            } else {
+                                parser.skipChildren();
+                            }
                         }
-                    } else if (root.has("editOperations")) {
-                        ArrayNode ops = (ArrayNode) root.get("editOperations");
-                        if (ops != null) extractOps(ops, seen, operations);
-                    }
-
-                    // Aggregate the patternCounts block
-                    JsonNode patternCounts = root.get("patternCounts");
-                    if (patternCounts != null && patternCounts.isObject()) {
-                        patternCounts.fields().forEachRemaining(entry -> {
-                            String pattern = entry.getKey();
-                            int count = entry.getValue().asInt();
-                            aggregatedPatternCounts.merge(pattern, count, Integer::sum);
-                        });
                     }
                 }
             }
 
-            // Build output JSON
-            ObjectNode outRoot = mapper.createObjectNode();
-            outRoot.set("editOperations", operations);
+            out.writeEndArray();
 
             // Add the aggregated patternCounts
-            ObjectNode patternCountsNode = mapper.createObjectNode();
-            aggregatedPatternCounts.forEach(patternCountsNode::put);
-            outRoot.set("patternCounts", patternCountsNode);
-
-            // Write to file
-            mapper.writerWithDefaultPrettyPrinter().writeValue(new File(outputPath), outRoot);
-            System.out.println("Aggregated unique operations and patternCounts written to " + outputPath);
+            out.writeObjectFieldStart("patternCounts");
+            for (var e : aggregatedPatternCounts.entrySet()) {
+                out.writeNumberField(e.getKey(), e.getValue());
+            }
+            out.writeEndObject();
+            out.writeEndObject();
 
-        } catch (IOException e) {
+            System.out.println("Aggregated " + seen.size() + " unique operations and patternCounts written to " + outputPath);
+        } catch (IOException | UncheckedIOException e) {
             System.err.println("Failed to aggregate unique operations: " + e.getMessage());
         }
     }
 
+    private static void writeOp(JsonGenerator out, JsonNode op) {
+        try {
+            mapper.writeTree(out, op);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
     /**
-     * Helper to dedupe and append operations
+     * Helper to dedupe operations, handing each first occurrence to {@code sink}
      */
-    private static void extractOps(ArrayNode ops, Set<String> seen, ArrayNode target) {
+    private static void extractOps(Iterable<JsonNode> ops, OperationKeySet seen, Consumer<JsonNode> sink) {
         for (JsonNode op : ops) {
             String type = op.path("type").asText();
             String fromText = op.path("fromText").asText();
             String toText = op.path("toText").asText();
-            String key = type + "||" + fromText + "||" + toText;
-            if (seen.add(key)) {
-                target.add(op);
+            if (seen.add(type, fromText, toText)) {
+                sink.accept(op);
             }
         }
     }
@@ -0,0 +1,129 @@
+package com.example.util;
+
+import spoon.reflect.declaration.CtElement;
+
+import java.util.regex.Pattern;
+
+/**
+ * Text of Spoon nodes as it appears in edit operations. Rendering a node through Spoon's pretty
+ * printer is expensive, so the rendered text is stored in the node's metadata and shared by
+ * every caller. Normalization is done by hand-written single-pass scanners instead of
+ * {@code String.replaceAll}, which compiles its pattern on every call.
+ */
+public class NodeText {
+    private static final String RENDERED_KEY = NodeText.class.getName() + ".rendered";
+    private static final Pattern LINE_BREAK = Pattern.compile("\\R");
+
+    /** {@code element.toString()}, computed once per element. */
+    public static String render(CtElement element) {
+        Object cached = element.getMetadata(RENDERED_KEY);
+        if (cached instanceof String text) {
+            return text;
+        }
+        String text = element.toString();
+        element.putMetadata(RENDERED_KEY, text);
+        return text;
+    }
+
+    /** Rendered text with whitespace runs collapsed to one space and trimmed. */
+    public static String collapsed(CtElement element) {
+        return normalize(render(element), false);
+    }
+
+    /** Like {@link #collapsed}, with qualified type names shortened to their simple name. */
+    public static String collapsedUnqualified(CtElement element) {
+        return normalize(render(element), true);
+    }
+
+    /** Rendered lines of the element with qualified type names shortened to their simple name. */
+    public static String[] unqualifiedLines(CtElement element) {
+        return LINE_BREAK.split(normalize(render(element), true, false));
+    }
+
+    public static String normalize(String text, boolean stripQualifiers) {
+        return normalize(text, stripQualifiers, true);
+    }
+
+    /**
+     * Single pass over {@code text}. Qualifier stripping matches
+     * {@code replaceAll("\\b([a-zA-Z_][\\w$]*\\.)+([A-Z][\\w$]*)", "$2")}, and whitespace
+     * handling matches {@code replaceAll("\\s+", " ").trim()}.
+     */
+    static String normalize(String text, boolean stripQualifiers, boolean collapseWhitespace) {
+        int length = text.length();
+        StringBuilder out = new StringBuilder(length);
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+
+            if (collapseWhitespace && isRegexSpace(c)) {
+                while (i < length && isRegexSpace(text.charAt(i))) i++;
+                out.append(' ');
+                continue;
+            }
+
+            if (stripQualifiers && isIdentifierStart(c) && (i == 0 || !isWordChar(text.charAt(i - 1)))) {
+                i = appendChain(text, i, out);
+                continue;
+            }
+
+            out.append(c);
+            i++;
+        }
+        return collapseWhitespace ? out.toString().trim() : out.toString();
+    }
+
+    /**
+     * Handles the dotted identifier chain starting at {@code start}: appends the simple name of
+     * the longest qualified type name found there, or the chain unchanged if there is none.
+     * Every other start position inside the chain would fail the same way, so the whole chain
+     * is consumed either way. Returns the index just past what was consumed.
+     */
+    private static int appendChain(String text, int start, StringBuilder out) {
+        int length = text.length();
+        int idStart = start;
+        int idEnd = identifierEnd(text, start);
+        int typeStart = -1;
+        int typeEnd = -1;
+        boolean first = true;
+
+        while (true) {
+            if (!first && text.charAt(idStart) >= 'A' && text.charAt(idStart) <= 'Z') {
+                typeStart = idStart;
+                typeEnd = idEnd;
+            }
+            first = false;
+            if (idEnd + 1 < length && text.charAt(idEnd) == '.' && isIdentifierStart(text.charAt(idEnd + 1))) {
+                idStart = idEnd + 1;
+                idEnd = identifierEnd(text, idStart);
+            } else {
+                break;
+            }
+        }
+
+        if (typeStart < 0) {
+            out.append(text, start, idEnd);
+            return idEnd;
+        }
+        out.append(text, typeStart, typeEnd);
+        return typeEnd;
+    }
+
+    private static int identifierEnd(String text, int start) {
+        int i = start + 1;
+        while (i < text.length() && (isWordChar(text.charAt(i)) || text.charAt(i) == '$')) i++;
+        return i;
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    private static boolean isWordChar(char c) {
+        return isIdentifierStart(c) || (c >= '0' && c <= '9');
+    }
+
+    private static boolean isRegexSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
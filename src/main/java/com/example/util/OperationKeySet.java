@@ -0,0 +1,117 @@
+package com.example.util;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Seen-set for edit operation dedup. Each operation is reduced to a 128-bit hash of its
+ * (type, fromText, toText) triple, stored in an open-addressing table of long pairs, which is
+ * 16 bytes per entry instead of the full concatenated strings. The table is split into
+ * buffers of at most 1 GiB, so it can grow past the 2 GiB a single buffer can address, and
+ * it can live off-heap so that deduplicating large outputs doesn't grow the Java heap.
+ */
+public class OperationKeySet {
+    private static final HashFunction HASH = Hashing.murmur3_128();
+    private static final long INITIAL_CAPACITY = 1 << 16;
+    /** Slots per buffer: 2^26 slots of 16 bytes is 1 GiB, well within a ByteBuffer's int size. */
+    private static final int SEGMENT_SHIFT = 26;
+    private static final long SEGMENT_SLOTS = 1L << SEGMENT_SHIFT;
+    /** Hard cap on slots, far past any realistic output; growing beyond it fails loudly. */
+    private static final long MAX_CAPACITY = 1L << 40;
+
+    private final boolean offHeap;
+    private LongBuffer[] table;
+    private long capacity;
+    private long size;
+
+    public OperationKeySet(boolean offHeap) {
+        this.offHeap = offHeap;
+        this.capacity = INITIAL_CAPACITY;
+        this.table = allocate(capacity);
+    }
+
+    /** Returns {@code true} if the triple had not been seen before. */
+    public boolean add(String type, String fromText, String toText) {
+        HashCode hash = HASH.newHasher()
+                .putInt(type.length()).putString(type, StandardCharsets.UTF_8)
+                .putInt(fromText.length()).putString(fromText, StandardCharsets.UTF_8)
+                .putInt(toText.length()).putString(toText, StandardCharsets.UTF_8)
+                .hash();
+        ByteBuffer bytes = ByteBuffer.wrap(hash.asBytes());
+        long high = bytes.getLong();
+        long low = bytes.getLong();
+        if (high == 0 && low == 0) {
+            low = 1; // (0, 0) marks an empty slot
+        }
+
+        if (size * 2 >= capacity) {
+            grow();
+        }
+        if (!insert(table, capacity, high, low)) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    private static boolean insert(LongBuffer[] table, long capacity, long high, long low) {
+        long slot = (low ^ (low >>> 32)) & (capacity - 1);
+        while (true) {
+            LongBuffer segment = table[(int) (slot >>> SEGMENT_SHIFT)];
+            int offset = (int) (slot & (SEGMENT_SLOTS - 1)) * 2;
+            long h = segment.get(offset);
+            long l = segment.get(offset + 1);
+            if (h == 0 && l == 0) {
+                segment.put(offset, high);
+                segment.put(offset + 1, low);
+                return true;
+            }
+            if (h == high && l == low) {
+                return false;
+            }
+            slot = (slot + 1) & (capacity - 1);
+        }
+    }
+
+    private void grow() {
+        long newCapacity = capacity * 2;
+        if (newCapacity > MAX_CAPACITY) {
+            throw new IllegalStateException("Operation seen-set is full at " + size + " unique operations");
+        }
+        LongBuffer[] grown = allocate(newCapacity);
+        for (LongBuffer segment : table) {
+            for (int offset = 0; offset < segment.capacity(); offset += 2) {
+                long h = segment.get(offset);
+                long l = segment.get(offset + 1);
+                if (h != 0 || l != 0) {
+                    insert(grown, newCapacity, h, l);
+                }
+            }
+        }
+        table = grown;
+        capacity = newCapacity;
+    }
+
+    /** Buffers for {@code slots} slots, split into segments so no buffer exceeds 2^31 bytes. */
+    private LongBuffer[] allocate(long slots) {
+        int segments = (int) Math.max(1, slots / SEGMENT_SLOTS);
+        int segmentSlots = (int) Math.min(slots, SEGMENT_SLOTS);
+        LongBuffer[] buffers = new LongBuffer[segments];
+        for (int i = 0; i < segments; i++) {
+            int bytes = segmentSlots * 2 * Long.BYTES;
+            ByteBuffer buffer = offHeap ? ByteBuffer.allocateDirect(bytes) : ByteBuffer.allocate(bytes);
+            buffers[i] = buffer.order(ByteOrder.nativeOrder()).asLongBuffer();
+        }
+        return buffers;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.util;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import spoon.reflect.cu.SourcePosition;
+import spoon.reflect.cu.position.CompoundSourcePosition;
+import spoon.reflect.declaration.CtElement;
+
+/**
+ * Hashes the normalized token stream of a source range: comments are dropped and whitespace
+ * only counts where it separates two tokens that would otherwise merge. Two methods with the
+ * same fingerprint differ at most in comments and formatting, so diffing them is pointless.
+ */
+public class SourceFingerprint {
+    private static final HashFunction HASH = Hashing.murmur3_128();
+    private static final String OPERATOR_CHARS = "+-*/%<>=!&|^~?:";
+
+    /**
+     * Fingerprints the full declaration of {@code element} (modifiers through closing brace),
+     * or returns {@code null} if the element has no usable position in {@code source}.
+     */
+    public static HashCode of(SourceText source, CtElement element) {
+        SourcePosition pos = element.getPosition();
+        if (pos == null || !pos.isValidPosition()) {
+            return null;
+        }
+        int start = pos.getSourceStart();
+        if (pos instanceof CompoundSourcePosition compound) {
+            start = Math.min(start, compound.getDeclarationStart());
+        }
+        int end = pos.getSourceEnd() + 1;
+        String content = source.getContent();
+        if (start < 0 || end > content.length() || start >= end) {
+            return null;
+        }
+        return of(content, start, end);
+    }
+
+    public static HashCode of(CharSequence text, int start, int end) {
+        Hasher hasher = HASH.newHasher();
+        char last = 0;
+        boolean pendingSpace = false;
+        int i = start;
+        while (i < end) {
+            char c = text.charAt(i);
+
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                i++;
+                continue;
+            }
+
+            // comments are skipped entirely
+            if (c == '/' && i + 1 < end && text.charAt(i + 1) == '/') {
+                while (i < end && text.charAt(i) != '\n' && text.charAt(i) != '\r') i++;
+                pendingSpace = true;
+                continue;
+            }
+            if (c == '/' && i + 1 < end && text.charAt(i + 1) == '*') {
+                i += 2;
+                while (i + 1 < end && !(text.charAt(i) == '*' && text.charAt(i + 1) == '/')) i++;
+                i = Math.min(end, i + 2);
+                pendingSpace = true;
+                continue;
+            }
+
+            if (pendingSpace && mergesWith(last, c)) {
+                hasher.putChar(' ');
+            }
+            pendingSpace = false;
+
+            // literals are hashed verbatim, whitespace included
+            if (c == '"' || c == '\'') {
+                int literalEnd = literalEnd(text, i, end);
+                for (int j = i; j < literalEnd; j++) {
+                    hasher.putChar(text.charAt(j));
+                }
+                last = c;
+                i = literalEnd;
+                continue;
+            }
+
+            hasher.putChar(c);
+            last = c;
+            i++;
+        }
+        return hasher.hash();
+    }
+
+    private static boolean mergesWith(char last, char next) {
+        if (last == 0) return false;
+        boolean identifiers = Character.isJavaIdentifierPart(last) && Character.isJavaIdentifierPart(next);
+        boolean operators = OPERATOR_CHARS.indexOf(last) >= 0 && OPERATOR_CHARS.indexOf(next) >= 0;
+        return identifiers || operators;
+    }
+
+    /** Index just past the string, char or text-block literal starting at {@code start}. */
+    private static int literalEnd(CharSequence text, int start, int end) {
+        char quote = text.charAt(start);
+        boolean textBlock = quote == '"'
+                && start + 2 < end
+                && text.charAt(start + 1) == '"'
+                && text.charAt(start + 2) == '"';
+        int i = start + (textBlock ? 3 : 1);
+        while (i < end) {
+            char c = text.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (textBlock) {
+                if (c == '"' && i + 2 < end && text.charAt(i + 1) == '"' && text.charAt(i + 2) == '"') {
+                    return i + 3;
+                }
+            } else if (c == quote) {
+                return i + 1;
+            } else if (c == '\n' || c == '\r') {
+                return i; // unterminated literal, stop at the line end
+            }
+            i++;
+        }
+        return end;
+    }
+}
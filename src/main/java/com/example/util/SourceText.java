@@ -0,0 +1,124 @@
+package com.example.util;
+
+import org.eclipse.jgit.lib.ObjectId;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * One version of a source file held fully in memory, together with its line-offset index.
+ * The index is built once, so every context lookup for the file is served from memory
+ * instead of re-reading the file from disk. Line slices are views over the content: a line's
+ * String is only created when it is actually read.
+ */
+public class SourceText {
+    private final String name;
+    private final ObjectId blobId;
+    private final String content;
+    private final int[] lineStarts;
+    private final int[] lineEnds;
+
+    public SourceText(String name, String content) {
+        this(name, null, content);
+    }
+
+    public SourceText(String name, ObjectId blobId, String content) {
+        this.name = name;
+        this.blobId = blobId;
+        this.content = content;
+
+        // same line splitting as String.lines(): \n, \r and \r\n end a line, no empty last line
+        int[] starts = new int[16];
+        int[] ends = new int[16];
+        int count = 0;
+        int start = 0;
+        int length = content.length();
+        while (start < length) {
+            int end = start;
+            while (end < length && content.charAt(end) != '\n' && content.charAt(end) != '\r') {
+                end++;
+            }
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            starts[count] = start;
+            ends[count] = end;
+            count++;
+            if (end < length && content.charAt(end) == '\r' && end + 1 < length && content.charAt(end + 1) == '\n') {
+                start = end + 2;
+            } else {
+                start = end + 1;
+            }
+        }
+        this.lineStarts = Arrays.copyOf(starts, count);
+        this.lineEnds = Arrays.copyOf(ends, count);
+    }
+
+    public static SourceText of(String name, ObjectId blobId, byte[] bytes) {
+        return new SourceText(name, blobId, new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    public static SourceText read(File file) throws IOException {
+        return new SourceText(file.getPath(), Files.readString(file.toPath()));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** SHA of the Git blob this text was read from, or {@code null} for files read from disk. */
+    public ObjectId getBlobId() {
+        return blobId;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public int lineCount() {
+        return lineStarts.length;
+    }
+
+    /**
+     * Returns the lines between {@code firstLine} and {@code lastLine} (1-based, inclusive),
+     * clamped to the bounds of the file, as a read-only view over the content.
+     */
+    public List<String> lines(int firstLine, int lastLine) {
+        int begin = Math.max(1, firstLine);
+        int finish = Math.min(lineStarts.length, lastLine);
+        if (begin > finish) {
+            return List.of();
+        }
+        return new LineView(begin - 1, finish - begin + 1);
+    }
+
+    private final class LineView extends AbstractList<String> implements RandomAccess {
+        private final int offset;
+        private final int size;
+
+        private LineView(int offset, int size) {
+            this.offset = offset;
+            this.size = size;
+        }
+
+        @Override
+        public String get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return content.substring(lineStarts[offset + index], lineEnds[offset + index]);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
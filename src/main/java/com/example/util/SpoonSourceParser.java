@@ -0,0 +1,44 @@
+package com.example.util;
+
+import spoon.compiler.Environment;
+import spoon.reflect.CtModel;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.factory.FactoryImpl;
+import spoon.support.DefaultCoreFactory;
+import spoon.support.StandardEnvironment;
+import spoon.support.compiler.VirtualFile;
+import spoon.support.compiler.jdt.JDTBasedSpoonCompiler;
+
+/**
+ * Builds Spoon models for single source files without going through {@link spoon.Launcher}.
+ * A Launcher parses its command-line options and creates a new environment for every file;
+ * here each thread configures one {@link Environment} up front and only the factory and
+ * compiler, which hold per-model state, are created per file.
+ *
+ * <p>Comments are never attached to the model, so they don't have to be deleted afterwards.
+ */
+public class SpoonSourceParser {
+    private static final ThreadLocal<SpoonSourceParser> PER_THREAD = ThreadLocal.withInitial(SpoonSourceParser::new);
+
+    private final Environment environment;
+
+    private SpoonSourceParser() {
+        environment = new StandardEnvironment();
+        environment.setNoClasspath(true);
+        environment.setCommentEnabled(false);
+        environment.setAutoImports(false);
+        environment.setShouldCompile(false);
+    }
+
+    public static SpoonSourceParser forCurrentThread() {
+        return PER_THREAD.get();
+    }
+
+    public CtModel parse(SourceText source) {
+        Factory factory = new FactoryImpl(new DefaultCoreFactory(), environment);
+        JDTBasedSpoonCompiler compiler = new JDTBasedSpoonCompiler(factory);
+        compiler.addInputSource(new VirtualFile(source.getContent(), source.getName()));
+        compiler.build();
+        return factory.getModel();
+    }
+}
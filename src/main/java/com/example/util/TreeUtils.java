@@ -119,55 +119,15 @@ public class TreeUtils {
         }
     }
 
+    /**
+     * Finds the JavaParser node enclosing {@code spoonNode} in {@code file}. Parses the file on
+     * every call; code holding a {@link com.example.pojo.ParsedSource} should use its index instead.
+     */
     public static Optional<Node> findJavaParserNode(File file, CtElement spoonNode) throws IOException {
         if (spoonNode == null || !spoonNode.getPosition().isValidPosition()) {
             return Optional.empty();
         }
-
-        // 1) read & parse
-        String code = Files.readString(file.toPath());
-        CompilationUnit cu = StaticJavaParser.parse(code);
-
-        // 2) normalize the snippet
-        String targetSrc = spoonNode.toString()
-                .replaceAll("\\s+", " ")
-                .trim();
-
-        // 3) spoon position
-        int spoonLine = spoonNode.getPosition().getLine();
-        int spoonCol  = spoonNode.getPosition().getColumn();
-
-        // 4) find *all* text‐matching nodes, but also check their JavaParser Range sits on the same line
-        List<Node> candidates = cu.findAll(Node.class).stream()
-                .filter(n -> {
-                    // text match
-                    String norm = n.toString().replaceAll("\\s+", " ").trim();
-                    if (!norm.equals(targetSrc)) return false;
-
-                    // has a range?
-                    Optional<Range> rOpt = n.getRange();
-                    if (rOpt.isEmpty()) return false;
-
-                    // does this node begin on the same line/column (or contain it)?
-                    Range r = rOpt.get();
-                    boolean sameLine = (r.begin.line == spoonLine);
-                    boolean contains  = (r.begin.isBefore(new Position(spoonLine, spoonCol)) ||
-                            r.begin.equals(new Position(spoonLine, spoonCol)))
-                            && (r.end.isAfter(new Position(spoonLine, spoonCol)) ||
-                            r.end.equals(new Position(spoonLine, spoonCol)));
-                    return sameLine || contains;
-                })
-                .toList();
-
-        // 5) pick the best candidate: smallest span (tightest match)
-        return candidates.stream()
-                .min(Comparator.comparingInt(n -> {
-                    Range r = n.getRange().get();
-                    // compute span in characters (approx)
-                    int lineSpan = r.end.line   - r.begin.line;
-                    int colSpan  = r.end.column - r.begin.column;
-                    return lineSpan * 1000 + colSpan;
-                }));
+        return JavaParserNodeIndex.of(SourceText.read(file)).find(spoonNode);
     }
 
     public static Optional<Node> findJavaParserNode(File file, CtElement srcNode, CtElement dstNode , boolean useSrc) throws IOException {
@@ -176,24 +136,20 @@ public class TreeUtils {
     }
 
     public static List<String> extractCtElementContext(
-            File file,
+            SourceText source,
             CtElement element,
             int radius
-    ) throws IOException {
+    ) {
         if (radius == 0){
-            return Arrays.asList( element.toString().replaceAll("\\b([a-zA-Z_][\\w$]*\\.)+([A-Z][\\w$]*)", "$2").split("\\R") );
+            return Arrays.asList(NodeText.unqualifiedLines(element));
         }
-        List<String> all = Files.readAllLines(file.toPath());
         if (!element.getPosition().isValidPosition()) {
             return List.of();
         }
         int startLine = element.getPosition().getLine();
         int endLine   = element.getPosition().getEndLine();
-        // expand by radius
-        int begin = Math.max(1, startLine - radius);
-        int finish = Math.min(all.size(), endLine + radius);
-        // subList is 0-based, end-exclusive
-        return all.subList(begin - 1, finish);
+        // expand by radius; the line index clamps to the file bounds
+        return source.lines(startLine - radius, endLine + radius);
     }
 
 }
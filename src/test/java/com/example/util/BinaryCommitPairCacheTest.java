@@ -0,0 +1,83 @@
+package com.example.util;
+
+import com.example.FileHunks;
+import com.example.FileHunks.LineRange;
+import com.example.dto.CommitPairDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** {@link BinaryCommitPairCache#write} followed by {@link BinaryCommitPairCache#load} and {@link BinaryCommitPairCache#open}. */
+class BinaryCommitPairCacheTest {
+    private static final String SHA_A = "0123456789abcdef0123456789abcdef01234567";
+    private static final String SHA_B = "fedcba9876543210fedcba9876543210fedcba98";
+    private static final String SHA_C = "00000000000000000000000000000000000000ff";
+
+    @TempDir
+    Path dir;
+
+    private static List<CommitPairDTO> pairs() {
+        return List.of(
+                // a pure insertion and a pure deletion leave an empty range on the other side
+                new CommitPairDTO(SHA_A, SHA_B, List.of("src/A.java", "src/B.java"), Map.of(
+                        "src/A.java", new FileHunks(
+                                List.of(new LineRange(4, 4), new LineRange(10, 12)),
+                                List.of(new LineRange(4, 9), new LineRange(15, 17))),
+                        "src/B.java", new FileHunks(
+                                List.of(new LineRange(0, 3)),
+                                List.of(new LineRange(0, 0))))),
+                // no hunks recorded at all
+                new CommitPairDTO(SHA_B, SHA_C, List.of("src/A.java"), Map.of()),
+                // hunks for only some of the files, past the one-byte varint range
+                new CommitPairDTO(SHA_C, SHA_A, List.of("src/B.java", "src/ünïcode/C.java"), Map.of(
+                        "src/ünïcode/C.java", new FileHunks(
+                                List.of(new LineRange(100_000, 100_300)),
+                                List.of(new LineRange(200, 200))))),
+                new CommitPairDTO(SHA_A, SHA_C, List.of(), Map.of()));
+    }
+
+    @Test
+    void loadReturnsWhatWasWritten() throws IOException {
+        Path file = dir.resolve("pairs.bin");
+        BinaryCommitPairCache.write(pairs(), file);
+
+        BinaryCommitPairCache cache = BinaryCommitPairCache.load(file);
+        assertEquals(pairs().size(), cache.size());
+        assertEquals(pairs(), cache.toDTOs());
+    }
+
+    @Test
+    void openReturnsWhatWasWritten() throws IOException {
+        Path file = dir.resolve("pairs.bin");
+        BinaryCommitPairCache.write(pairs(), file);
+
+        BinaryCommitPairCache cache = BinaryCommitPairCache.open(file);
+        assertEquals(pairs().size(), cache.size());
+        assertEquals(pairs(), cache.toDTOs());
+    }
+
+    @Test
+    void emptyCacheRoundTrips() throws IOException {
+        Path file = dir.resolve("empty.bin");
+        BinaryCommitPairCache.write(List.of(), file);
+
+        assertEquals(List.of(), BinaryCommitPairCache.load(file).toDTOs());
+        assertEquals(List.of(), BinaryCommitPairCache.open(file).toDTOs());
+    }
+
+    @Test
+    void rewriteReplacesThePreviousCache() throws IOException {
+        Path file = dir.resolve("pairs.bin");
+        BinaryCommitPairCache.write(pairs(), file);
+        List<CommitPairDTO> loaded = BinaryCommitPairCache.load(file).toDTOs();
+        BinaryCommitPairCache.write(List.of(loaded.get(1), loaded.get(0)), file);
+
+        assertEquals(List.of(pairs().get(1), pairs().get(0)), BinaryCommitPairCache.load(file).toDTOs());
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * {@link NodeText#normalize} against the replaceAll chains it replaced in EditOperation,
+ * ResultMapper and TreeUtils.
+ */
+class NodeTextTest {
+    private static final String QUALIFIED = "\\b([a-zA-Z_][\\w$]*\\.)+([A-Z][\\w$]*)";
+
+    private static String collapsedUnqualified(String text) {
+        return text.replaceAll("\\s+", " ").trim().replaceAll(QUALIFIED, "$2");
+    }
+
+    private static String collapsed(String text) {
+        return text.trim().replaceAll("\\s+", " ");
+    }
+
+    private static String unqualified(String text) {
+        return text.replaceAll(QUALIFIED, "$2");
+    }
+
+    private static void assertMatchesRegex(String text) {
+        assertEquals(collapsedUnqualified(text), NodeText.normalize(text, true), "collapsed, unqualified: " + text);
+        assertEquals(collapsed(text), NodeText.normalize(text, false), "collapsed: " + text);
+        assertEquals(unqualified(text), NodeText.normalize(text, true, false), "unqualified: " + text);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "java.util.List<java.lang.String> names = new java.util.ArrayList<>();",
+            "a.b.C.d.E.f()",
+            "this.Foo.bar",
+            "java.util.Map.Entry<K, V> e",
+            "x.y.z",
+            "Foo.BAR",
+            "_a.B",
+            "a.$B",
+            "com.foo.Outer$Inner inner",
+            "pkg.Foo$1.run()",
+            "Outer$Inner.x",
+            "v2.Foo1 x; a1b.c2.D3e",
+            "1.Foo",
+            "3.14f + 2.5e3",
+            "a.b2.C$3d.E_4",
+            "a..B",
+            "a.B.",
+            ".a.B",
+    })
+    void qualifiedChainsMatchTheRegex(String text) {
+        assertMatchesRegex(text);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "   ",
+            "  a \t\n  b\r\n\f c  ",
+            "\u000Bx\u000B",
+            "if (java.util.Objects.equals(a,   b)) {\n    return   org.x.Y.Z;\n}",
+            "line one\r\nline  two\n\n\tjava.io.File f",
+    })
+    void whitespaceRunsMatchTheRegex(String text) {
+        assertMatchesRegex(text);
+    }
+
+    @Test
+    void randomTextMatchesTheRegex() {
+        String alphabet = "abZQ_$.19 \t\n\r(";
+        Random random = new Random(42);
+        for (int n = 0; n < 20_000; n++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(24);
+            for (int i = 0; i < length; i++) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            assertMatchesRegex(text.toString());
+        }
+    }
+}